@@ -0,0 +1,40 @@
+package vaultvault.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HazardRenderBenchmark {
+    private static final String[] TYPES = { "SPIKES", "LAVA", "ELECTRIC", "SAW", "ICE" };
+
+    @Param({ "SPIKES", "LAVA", "ELECTRIC", "SAW", "ICE" })
+    public String type;
+
+    private Runnable render;
+
+    @Setup
+    public void setUp() {
+        render = Workloads.create("hazard.render", Arrays.asList(TYPES).indexOf(type));
+    }
+
+    @Benchmark
+    public void render() {
+        render.run();
+    }
+}
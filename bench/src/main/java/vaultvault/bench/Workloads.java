@@ -0,0 +1,31 @@
+package vaultvault.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+final class Workloads {
+    private static final MethodHandle CREATE = lookup();
+
+    private Workloads() {
+    }
+
+    private static MethodHandle lookup() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Class.forName("BenchmarkWorkloads"), "create",
+                    MethodType.methodType(Runnable.class, String.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static Runnable create(String workload, int parameter) {
+        try {
+            return (Runnable) CREATE.invokeExact(workload, parameter);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+public final class Aabb {
+    public int minX, minY, maxX, maxY;
+
+    public Aabb() {
+    }
+
+    public Aabb(int x, int y, int width, int height) {
+        set(x, y, width, height);
+    }
+
+    public Aabb set(int x, int y, int width, int height) {
+        minX = x;
+        minY = y;
+        maxX = x + width;
+        maxY = y + height;
+        return this;
+    }
+
+    public int width() { return maxX - minX; }
+    public int height() { return maxY - minY; }
+
+    public boolean overlaps(Aabb other) {
+        return overlaps(this, other);
+    }
+
+    public static boolean overlaps(Aabb a, Aabb b) {
+        return overlaps(a.minX, a.minY, a.maxX, a.maxY, b.minX, b.minY, b.maxX, b.maxY);
+    }
+
+    public static boolean overlaps(Aabb a, int bMinX, int bMinY, int bMaxX, int bMaxY) {
+        return overlaps(a.minX, a.minY, a.maxX, a.maxY, bMinX, bMinY, bMaxX, bMaxY);
+    }
+
+    public static boolean overlaps(int aMinX, int aMinY, int aMaxX, int aMaxY,
+                                   int bMinX, int bMinY, int bMaxX, int bMaxY) {
+        if (aMaxX <= aMinX || aMaxY <= aMinY || bMaxX <= bMinX || bMaxY <= bMinY) {
+            return false;
+        }
+        return aMinX < bMaxX && bMinX < aMaxX && aMinY < bMaxY && bMinY < aMaxY;
+    }
+
+    public static boolean spansX(float minX, float maxX, Aabb box) {
+        return spansX(minX, maxX, box.minX, box.maxX);
+    }
+
+    public static boolean spansX(float minX, float maxX, int boxMinX, int boxMaxX) {
+        return maxX > boxMinX && minX < boxMaxX;
+    }
+}
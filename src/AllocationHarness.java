@@ -0,0 +1,124 @@
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+public class AllocationHarness {
+    private static final int DEFAULT_FRAMES = 600;
+    private static final int DEFAULT_WARMUP_FRAMES = 2000;
+    private static final long DEFAULT_BUDGET_BYTES = 512;
+    private static final int PERCENTILE = 99;
+
+    private final VaultVault game;
+    private final Graphics2D g2d;
+    private final com.sun.management.ThreadMXBean threads;
+    private final int frames;
+    private final int warmupFrames;
+    private final long budget;
+    private boolean failed;
+
+    public AllocationHarness(int frames, int warmupFrames, long budget) {
+        this.frames = frames;
+        this.warmupFrames = warmupFrames;
+        this.budget = budget;
+        this.game = new VaultVault();
+        BufferedImage image = new BufferedImage(VaultVault.WIDTH, VaultVault.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        this.g2d = image.createGraphics();
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public boolean run() {
+        measure("menu", warmupFrames, frames);
+        pressKey(KeyEvent.VK_ENTER);
+        measure("level select", warmupFrames, frames);
+        for (int i = 0; i < game.getLevelCount(); i++) {
+            game.startGame(i);
+            measure("level " + i, warmupFrames, frames);
+        }
+        game.setProfilerVisible(true);
+        game.startGame(0);
+        measure("profiler overlay", warmupFrames, frames);
+        game.setProfilerVisible(false);
+        int transitionFrames = game.getSimulation().getLevelCompleteTicks() + game.getSimulation().getLevelChangeTicks() - 1;
+        for (int warmed = 0; warmed < warmupFrames; warmed += transitionFrames) {
+            game.startGame(0);
+            reachGoal();
+            measure("transition", transitionFrames, 0);
+        }
+        game.startGame(0);
+        reachGoal();
+        measure("transition", 0, transitionFrames);
+        return !failed;
+    }
+
+    private void measure(String name, int warmup, int measured) {
+        for (int i = 0; i < warmup; i++) {
+            frame();
+        }
+        if (measured == 0) {
+            return;
+        }
+        long[] bytes = new long[measured];
+        long total = 0;
+        for (int i = 0; i < measured; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            frame();
+            bytes[i] = threads.getCurrentThreadAllocatedBytes() - before;
+            total += bytes[i];
+        }
+        Arrays.sort(bytes);
+        long mean = total / measured;
+        long percentile = bytes[(int) Math.ceil(measured * PERCENTILE / 100.0) - 1];
+        long worst = bytes[measured - 1];
+        boolean ok = percentile <= budget;
+        failed |= !ok;
+        System.out.println((ok ? "ok   " : "FAIL ") + name + ": " + percentile + " B/frame p" + PERCENTILE + ", " + mean +
+                " B/frame mean, " + worst + " B/frame worst over " + measured + " frames (budget " + budget + ")");
+    }
+
+    private void frame() {
+        game.update();
+        game.render(g2d);
+    }
+
+    private void reachGoal() {
+        Simulation simulation = game.getSimulation();
+        Entities entities = simulation.getLevel().getEntities();
+        int goal = findGoal(entities);
+        simulation.getPlayer().setX(entities.getX(goal));
+        simulation.getPlayer().setY(entities.getY(goal));
+        simulation.getPlayer().storePrevious();
+    }
+
+    private static int findGoal(Entities entities) {
+        for (int id = 0; id < entities.size(); id++) {
+            if ((entities.triggerActions(id) & Entities.TRIGGER_GOAL) != 0) {
+                return id;
+            }
+        }
+        throw new IllegalStateException("Level has no goal");
+    }
+
+    private void pressKey(int keyCode) {
+        KeyEvent event = new KeyEvent(game, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+        for (KeyListener listener : game.getKeyListeners()) {
+            listener.keyPressed(event);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_BUDGET_BYTES;
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_WARMUP_FRAMES;
+        AllocationHarness harness = new AllocationHarness(frames, warmup, budget);
+        if (!harness.run()) {
+            System.out.println("Allocation budget exceeded");
+            System.exit(1);
+        }
+        System.out.println("All scenarios within budget");
+    }
+}
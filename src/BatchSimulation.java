@@ -0,0 +1,160 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BatchSimulation {
+    private static final int EPISODES_PER_TASK = 4;
+
+    public interface Policy {
+        int input(Simulation simulation);
+    }
+
+    public interface PolicyFactory {
+        Policy create(int episode, int level);
+    }
+
+    private final LevelSource levels;
+    private final int width;
+    private final int height;
+    private final TickRate tickRate;
+    private final ForkJoinPool pool;
+
+    public BatchSimulation(LevelSource levels, int parallelism) {
+        this(levels, VaultVault.WIDTH, VaultVault.HEIGHT, parallelism);
+    }
+
+    public BatchSimulation(LevelSource levels, int width, int height, int parallelism) {
+        this(levels, width, height, TickRate.getDefault(), parallelism);
+    }
+
+    public BatchSimulation(LevelSource levels, int width, int height, TickRate tickRate, int parallelism) {
+        this.levels = levels;
+        this.width = width;
+        this.height = height;
+        this.tickRate = tickRate;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public static final class Results {
+        private final int[] levelIndex;
+        private final boolean[] completed;
+        private final long[] ticks;
+
+        private Results(int episodes) {
+            levelIndex = new int[episodes];
+            completed = new boolean[episodes];
+            ticks = new long[episodes];
+        }
+
+        public int size() { return levelIndex.length; }
+        public int getLevelIndex(int episode) { return levelIndex[episode]; }
+        public boolean isCompleted(int episode) { return completed[episode]; }
+        public long getTicks(int episode) { return ticks[episode]; }
+    }
+
+    public Results run(int episodes, int maxTicks, PolicyFactory policies) {
+        Results results = new Results(episodes);
+        pool.invoke(new Episodes(0, episodes, maxTicks, policies, results));
+        return results;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void runEpisode(int episode, int maxTicks, PolicyFactory policies, Results results) {
+        int levelIndex = episode % levels.size();
+        Simulation simulation = new Simulation(levels, width, height, tickRate);
+        simulation.startLevel(levelIndex);
+        Policy policy = policies.create(episode, levelIndex);
+        int tick = 0;
+        while (tick < maxTicks && simulation.getPhase() == Simulation.Phase.PLAYING) {
+            simulation.advance(policy.input(simulation));
+            tick++;
+        }
+        results.levelIndex[episode] = levelIndex;
+        results.completed[episode] = simulation.getPhase() != Simulation.Phase.PLAYING;
+        results.ticks[episode] = simulation.getLevelTicks();
+    }
+
+    private final class Episodes extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int maxTicks;
+        private final PolicyFactory policies;
+        private final Results results;
+
+        Episodes(int from, int to, int maxTicks, PolicyFactory policies, Results results) {
+            this.from = from;
+            this.to = to;
+            this.maxTicks = maxTicks;
+            this.policies = policies;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= EPISODES_PER_TASK) {
+                for (int episode = from; episode < to; episode++) {
+                    runEpisode(episode, maxTicks, policies, results);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Episodes(from, middle, maxTicks, policies, results),
+                    new Episodes(middle, to, maxTicks, policies, results));
+        }
+    }
+
+    static Policy randomPolicy(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] held = { Simulation.INPUT_RIGHT };
+        return simulation -> {
+            if (random.nextInt(30) == 0) {
+                held[0] = random.nextInt(5) == 0 ? Simulation.INPUT_LEFT : Simulation.INPUT_RIGHT;
+            }
+            return held[0] | (random.nextInt(15) == 0 ? Simulation.INPUT_JUMP : 0);
+        };
+    }
+
+    public static void main(String[] args) {
+        int episodes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : 3600;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        LevelSource levels = LevelSource.openDefault();
+        PolicyFactory fuzz = (episode, level) -> randomPolicy(episode * 0x9E3779B97F4A7C15L);
+
+        BatchSimulation serial = new BatchSimulation(levels, 1);
+        BatchSimulation parallel = new BatchSimulation(levels, threads);
+        serial.run(Math.min(episodes, 200), maxTicks, fuzz);
+        parallel.run(Math.min(episodes, 200), maxTicks, fuzz);
+
+        long start = System.nanoTime();
+        Results baseline = serial.run(episodes, maxTicks, fuzz);
+        double serialSeconds = (System.nanoTime() - start) / 1e9;
+        start = System.nanoTime();
+        Results results = parallel.run(episodes, maxTicks, fuzz);
+        double parallelSeconds = (System.nanoTime() - start) / 1e9;
+        serial.shutdown();
+        parallel.shutdown();
+
+        long ticks = 0;
+        int[] completions = new int[levels.size()];
+        int[] attempts = new int[levels.size()];
+        for (int i = 0; i < results.size(); i++) {
+            if (results.isCompleted(i) != baseline.isCompleted(i) || results.getTicks(i) != baseline.getTicks(i)) {
+                throw new IllegalStateException("Episode " + i + " differs between serial and parallel runs");
+            }
+            ticks += results.getTicks(i);
+            attempts[results.getLevelIndex(i)]++;
+            if (results.isCompleted(i)) {
+                completions[results.getLevelIndex(i)]++;
+            }
+        }
+        for (int l = 0; l < levels.size(); l++) {
+            System.out.println("Level " + l + " (" + levels.getName(l) + "): " + completions[l] + "/" + attempts[l] + " random episodes completed");
+        }
+        System.out.printf("%d episodes, %d ticks: 1 thread %.2fs, %d threads %.2fs (%.0f ticks/s, %.2fx)%n",
+                episodes, ticks, serialSeconds, threads, parallelSeconds, ticks / parallelSeconds, serialSeconds / parallelSeconds);
+    }
+}
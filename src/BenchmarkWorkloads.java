@@ -0,0 +1,145 @@
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+
+public class BenchmarkWorkloads {
+    public static final String LEVEL_UPDATE = "level.update";
+    public static final String LEVEL_COLLISIONS = "level.collisions";
+    public static final String ENTITY_UPDATE = "entity.update";
+    public static final String LEVEL_RENDER = "level.render";
+    public static final String HAZARD_RENDER = "hazard.render";
+    public static final String MENU_RENDER = "menu.render";
+    private static final int RESTORE_INTERVAL = 600;
+    private static final int PROBE_COUNT = 64;
+
+    private BenchmarkWorkloads() {
+    }
+
+    public static Runnable create(String workload, int parameter) {
+        System.setProperty("java.awt.headless", "true");
+        switch (workload) {
+            case LEVEL_UPDATE:
+                return levelUpdate(parameter);
+            case LEVEL_COLLISIONS:
+                return levelCollisions(parameter);
+            case ENTITY_UPDATE:
+                return entityUpdate(parameter);
+            case LEVEL_RENDER:
+                return levelRender(parameter);
+            case HAZARD_RENDER:
+                return hazardRender(Hazard.HazardType.values()[parameter]);
+            case MENU_RENDER:
+                return menuRender(parameter != 0);
+            default:
+                throw new IllegalArgumentException("Unknown workload " + workload);
+        }
+    }
+
+    private static Graphics2D canvas() {
+        BufferedImage image = new BufferedImage(VaultVault.WIDTH, VaultVault.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        return image.createGraphics();
+    }
+
+    private static Runnable levelUpdate(int levelIndex) {
+        Simulation simulation = new Simulation(LevelSource.openDefault());
+        simulation.startLevel(levelIndex);
+        Level level = simulation.getLevel();
+        byte[] start = simulation.saveState();
+        int[] updates = { 0 };
+        return () -> {
+            if (++updates[0] == RESTORE_INTERVAL) {
+                simulation.restoreState(start);
+                updates[0] = 0;
+            }
+            level.update();
+        };
+    }
+
+    private static Runnable levelCollisions(int platformCount) {
+        SplittableRandom random = new SplittableRandom(platformCount);
+        Level level = new Level();
+        for (int i = 0; i < platformCount; i++) {
+            level.addStaticPlatform(random.nextInt(VaultVault.WIDTH - 100), random.nextInt(100, VaultVault.HEIGHT - 20),
+                    random.nextInt(40, 160), 20, 0x8B4513);
+        }
+        Hazard.HazardType[] types = Hazard.HazardType.values();
+        for (int i = 0; i < platformCount / 4; i++) {
+            level.addHazard(random.nextInt(VaultVault.WIDTH - 60), random.nextInt(100, VaultVault.HEIGHT - 20),
+                    60, 20, types[i % types.length]);
+        }
+        Player player = new Player(0, 0);
+        level.addPlayer(player);
+        float[] probeX = new float[PROBE_COUNT];
+        float[] probeY = new float[PROBE_COUNT];
+        for (int i = 0; i < PROBE_COUNT; i++) {
+            probeX[i] = random.nextInt(VaultVault.WIDTH - player.getWidth());
+            probeY[i] = random.nextInt(VaultVault.HEIGHT - player.getHeight());
+        }
+        int[] probe = { 0 };
+        return () -> {
+            int i = probe[0]++ & (PROBE_COUNT - 1);
+            player.setX(probeX[i]);
+            player.setY(probeY[i]);
+            player.setVelocityY(240);
+            player.storePrevious();
+            level.checkCollisions();
+        };
+    }
+
+    private static Runnable entityUpdate(int entityCount) {
+        SplittableRandom random = new SplittableRandom(entityCount);
+        Level level = new Level();
+        Hazard.HazardType[] types = Hazard.HazardType.values();
+        for (int i = 0; i < entityCount; i++) {
+            int x = random.nextInt(VaultVault.WIDTH - 100);
+            int y = random.nextInt(100, VaultVault.HEIGHT - 20);
+            switch (i % 4) {
+                case 0:
+                    level.addMovingPlatform(x, y, 80, 20, -1, x, x + 100, 120, true);
+                    break;
+                case 1:
+                    level.addDisappearingPlatform(x, y, 80, 20, -1, 1.5f);
+                    break;
+                case 2:
+                    level.addCascadingPlatform(x, y, 80, 20, -1, 0.5f, false);
+                    break;
+                default:
+                    level.addHazard(x, y, 60, 20, types[i % types.length]);
+                    break;
+            }
+        }
+        level.addPlayer(new Player(50, 50));
+        return level::update;
+    }
+
+    private static Runnable levelRender(int levelIndex) {
+        Graphics2D g = canvas();
+        Simulation simulation = new Simulation(LevelSource.openDefault());
+        simulation.startLevel(levelIndex);
+        simulation.getLevel().prepare(g.getDeviceConfiguration());
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(VaultVault.GameState.PLAYING, simulation);
+        return () -> snapshot.render(g, 0.5f);
+    }
+
+    private static Runnable hazardRender(Hazard.HazardType type) {
+        Graphics2D g = canvas();
+        SpriteAtlas sprites = SpriteAtlas.forHazard(type, 120, 30, g.getDeviceConfiguration());
+        int[] tick = { 0 };
+        return () -> Hazard.draw(g, sprites, type, 100, 100, 120, 30, tick[0]++);
+    }
+
+    private static Runnable menuRender(boolean levelSelect) {
+        Graphics2D g = canvas();
+        VaultVault game = new VaultVault();
+        MainMenu menu = new MainMenu(game);
+        if (levelSelect) {
+            menu.handleKeyPressed(KeyEvent.VK_ENTER);
+        }
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(VaultVault.GameState.MENU, game.getSimulation());
+        menu.capture(snapshot);
+        return () -> menu.render(g, snapshot);
+    }
+}
@@ -0,0 +1,512 @@
+import java.awt.GraphicsConfiguration;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class Entities {
+    public static final byte SOLID = 1;
+    public static final byte FLOOR = 2;
+
+    public static final byte TIMER_ONCE = 0;
+    public static final byte TIMER_REPEAT = 1;
+
+    public static final int TRIGGER_GOAL = 1;
+    public static final int TRIGGER_VANISH_ON_APPROACH = 2;
+    public static final int TRIGGER_VANISH_ON_STAND = 4;
+    public static final int TRIGGER_CASCADE = 8;
+
+    public static final byte SPRITE_RECT = 0;
+    public static final byte SPRITE_HAZARD = 1;
+    public static final byte SPRITE_GOAL = 2;
+
+    int count;
+    int[] x, y, prevX, prevY, width, height;
+    boolean[] visible;
+    byte[] collider;
+
+    int moverCount;
+    int[] moverEntity;
+    float[] moverPosition, moverStart, moverEnd, moverSpeed;
+    boolean[] moverHorizontal, moverForward;
+
+    int timerCount;
+    int[] timerEntity, timerTicks, timerDuration, timerGroup;
+    byte[] timerMode;
+    boolean[] timerSpent;
+
+    int hazardCount;
+    int[] hazardEntity;
+    Hazard.HazardType[] hazardType;
+    boolean[] hazardLethal;
+
+    int triggerCount;
+    int[] triggerEntity, triggerAction, triggerGroup;
+    boolean[] triggerArmed;
+
+    int renderableCount;
+    int[] renderableEntity, renderableColor, renderableTick;
+    byte[] renderableSprite;
+    boolean[] renderableAnimated, spritesResolved;
+    SpriteAtlas[] renderableSprites;
+
+    int[] moverOf, timerOf, hazardOf, triggerOf, renderableOf;
+
+    public Entities(int capacity) {
+        capacity = Math.max(capacity, 8);
+        x = new int[capacity];
+        y = new int[capacity];
+        prevX = new int[capacity];
+        prevY = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        visible = new boolean[capacity];
+        collider = new byte[capacity];
+        moverOf = new int[capacity];
+        timerOf = new int[capacity];
+        hazardOf = new int[capacity];
+        triggerOf = new int[capacity];
+        renderableOf = new int[capacity];
+        growMovers(8);
+        growTimers(8);
+        growHazards(8);
+        growTriggers(8);
+        growRenderables(capacity);
+    }
+
+    public Entities() {
+        this(64);
+    }
+
+    public void clear() {
+        count = 0;
+        moverCount = 0;
+        timerCount = 0;
+        hazardCount = 0;
+        triggerCount = 0;
+        renderableCount = 0;
+        Arrays.fill(renderableSprites, null);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void copyFrom(Entities source) {
+        count = source.count;
+        x = source.x.clone();
+        y = source.y.clone();
+        prevX = source.prevX.clone();
+        prevY = source.prevY.clone();
+        width = source.width.clone();
+        height = source.height.clone();
+        visible = source.visible.clone();
+        collider = source.collider.clone();
+        moverOf = source.moverOf.clone();
+        timerOf = source.timerOf.clone();
+        hazardOf = source.hazardOf.clone();
+        triggerOf = source.triggerOf.clone();
+        renderableOf = source.renderableOf.clone();
+
+        moverCount = source.moverCount;
+        moverEntity = source.moverEntity.clone();
+        moverPosition = source.moverPosition.clone();
+        moverStart = source.moverStart.clone();
+        moverEnd = source.moverEnd.clone();
+        moverSpeed = source.moverSpeed.clone();
+        moverHorizontal = source.moverHorizontal.clone();
+        moverForward = source.moverForward.clone();
+
+        timerCount = source.timerCount;
+        timerEntity = source.timerEntity.clone();
+        timerTicks = source.timerTicks.clone();
+        timerDuration = source.timerDuration.clone();
+        timerGroup = source.timerGroup.clone();
+        timerMode = source.timerMode.clone();
+        timerSpent = source.timerSpent.clone();
+
+        hazardCount = source.hazardCount;
+        hazardEntity = source.hazardEntity.clone();
+        hazardType = source.hazardType.clone();
+        hazardLethal = source.hazardLethal.clone();
+
+        triggerCount = source.triggerCount;
+        triggerEntity = source.triggerEntity.clone();
+        triggerAction = source.triggerAction.clone();
+        triggerGroup = source.triggerGroup.clone();
+        triggerArmed = source.triggerArmed.clone();
+
+        renderableCount = source.renderableCount;
+        renderableEntity = source.renderableEntity.clone();
+        renderableColor = source.renderableColor.clone();
+        renderableTick = source.renderableTick.clone();
+        renderableSprite = source.renderableSprite.clone();
+        renderableAnimated = source.renderableAnimated.clone();
+        spritesResolved = source.spritesResolved.clone();
+        renderableSprites = source.renderableSprites.clone();
+    }
+
+    public int create(int px, int py, int w, int h) {
+        if (count == x.length) {
+            grow(count * 2);
+        }
+        int id = count++;
+        x[id] = px;
+        y[id] = py;
+        prevX[id] = px;
+        prevY[id] = py;
+        width[id] = w;
+        height[id] = h;
+        visible[id] = true;
+        collider[id] = 0;
+        moverOf[id] = -1;
+        timerOf[id] = -1;
+        hazardOf[id] = -1;
+        triggerOf[id] = -1;
+        renderableOf[id] = -1;
+        return id;
+    }
+
+    public void addCollider(int id, byte shape) {
+        collider[id] = shape;
+    }
+
+    public void addMover(int id, float from, float to, float step, boolean isHorizontal) {
+        if (moverCount == moverEntity.length) {
+            growMovers(moverCount * 2);
+        }
+        int m = moverCount++;
+        moverEntity[m] = id;
+        moverStart[m] = from;
+        moverEnd[m] = to;
+        moverSpeed[m] = step;
+        moverHorizontal[m] = isHorizontal;
+        moverForward[m] = true;
+        moverPosition[m] = isHorizontal ? x[id] : y[id];
+        moverOf[id] = m;
+    }
+
+    public void addTimer(int id, int duration, byte mode, int group) {
+        if (timerCount == timerEntity.length) {
+            growTimers(timerCount * 2);
+        }
+        int t = timerCount++;
+        timerEntity[t] = id;
+        timerTicks[t] = 0;
+        timerDuration[t] = duration;
+        timerMode[t] = mode;
+        timerGroup[t] = group;
+        timerSpent[t] = false;
+        timerOf[id] = t;
+    }
+
+    public void addHazard(int id, Hazard.HazardType type) {
+        if (hazardCount == hazardEntity.length) {
+            growHazards(hazardCount * 2);
+        }
+        int h = hazardCount++;
+        hazardEntity[h] = id;
+        hazardType[h] = type;
+        hazardLethal[h] = type != Hazard.HazardType.ICE;
+        hazardOf[id] = h;
+    }
+
+    public void addTrigger(int id, int action, int group) {
+        int t = triggerOf[id];
+        if (t >= 0) {
+            triggerAction[t] |= action;
+            if (group != 0) {
+                triggerGroup[t] = group;
+            }
+            return;
+        }
+        if (triggerCount == triggerEntity.length) {
+            growTriggers(triggerCount * 2);
+        }
+        t = triggerCount++;
+        triggerEntity[t] = id;
+        triggerAction[t] = action;
+        triggerGroup[t] = group;
+        triggerArmed[t] = false;
+        triggerOf[id] = t;
+    }
+
+    public void addRenderable(int id, byte sprite, int rgb, boolean animated) {
+        if (renderableCount == renderableEntity.length) {
+            growRenderables(renderableCount * 2);
+        }
+        int r = renderableCount++;
+        renderableEntity[r] = id;
+        renderableSprite[r] = sprite;
+        renderableColor[r] = rgb;
+        renderableTick[r] = 0;
+        renderableAnimated[r] = animated;
+        renderableSprites[r] = null;
+        spritesResolved[r] = sprite == SPRITE_RECT;
+        renderableOf[id] = r;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        visible = Arrays.copyOf(visible, capacity);
+        collider = Arrays.copyOf(collider, capacity);
+        moverOf = Arrays.copyOf(moverOf, capacity);
+        timerOf = Arrays.copyOf(timerOf, capacity);
+        hazardOf = Arrays.copyOf(hazardOf, capacity);
+        triggerOf = Arrays.copyOf(triggerOf, capacity);
+        renderableOf = Arrays.copyOf(renderableOf, capacity);
+    }
+
+    private void growMovers(int capacity) {
+        moverEntity = moverEntity == null ? new int[capacity] : Arrays.copyOf(moverEntity, capacity);
+        moverPosition = moverPosition == null ? new float[capacity] : Arrays.copyOf(moverPosition, capacity);
+        moverStart = moverStart == null ? new float[capacity] : Arrays.copyOf(moverStart, capacity);
+        moverEnd = moverEnd == null ? new float[capacity] : Arrays.copyOf(moverEnd, capacity);
+        moverSpeed = moverSpeed == null ? new float[capacity] : Arrays.copyOf(moverSpeed, capacity);
+        moverHorizontal = moverHorizontal == null ? new boolean[capacity] : Arrays.copyOf(moverHorizontal, capacity);
+        moverForward = moverForward == null ? new boolean[capacity] : Arrays.copyOf(moverForward, capacity);
+    }
+
+    private void growTimers(int capacity) {
+        timerEntity = timerEntity == null ? new int[capacity] : Arrays.copyOf(timerEntity, capacity);
+        timerTicks = timerTicks == null ? new int[capacity] : Arrays.copyOf(timerTicks, capacity);
+        timerDuration = timerDuration == null ? new int[capacity] : Arrays.copyOf(timerDuration, capacity);
+        timerGroup = timerGroup == null ? new int[capacity] : Arrays.copyOf(timerGroup, capacity);
+        timerMode = timerMode == null ? new byte[capacity] : Arrays.copyOf(timerMode, capacity);
+        timerSpent = timerSpent == null ? new boolean[capacity] : Arrays.copyOf(timerSpent, capacity);
+    }
+
+    private void growHazards(int capacity) {
+        hazardEntity = hazardEntity == null ? new int[capacity] : Arrays.copyOf(hazardEntity, capacity);
+        hazardType = hazardType == null ? new Hazard.HazardType[capacity] : Arrays.copyOf(hazardType, capacity);
+        hazardLethal = hazardLethal == null ? new boolean[capacity] : Arrays.copyOf(hazardLethal, capacity);
+    }
+
+    private void growTriggers(int capacity) {
+        triggerEntity = triggerEntity == null ? new int[capacity] : Arrays.copyOf(triggerEntity, capacity);
+        triggerAction = triggerAction == null ? new int[capacity] : Arrays.copyOf(triggerAction, capacity);
+        triggerGroup = triggerGroup == null ? new int[capacity] : Arrays.copyOf(triggerGroup, capacity);
+        triggerArmed = triggerArmed == null ? new boolean[capacity] : Arrays.copyOf(triggerArmed, capacity);
+    }
+
+    private void growRenderables(int capacity) {
+        renderableEntity = renderableEntity == null ? new int[capacity] : Arrays.copyOf(renderableEntity, capacity);
+        renderableColor = renderableColor == null ? new int[capacity] : Arrays.copyOf(renderableColor, capacity);
+        renderableTick = renderableTick == null ? new int[capacity] : Arrays.copyOf(renderableTick, capacity);
+        renderableSprite = renderableSprite == null ? new byte[capacity] : Arrays.copyOf(renderableSprite, capacity);
+        renderableAnimated = renderableAnimated == null ? new boolean[capacity] : Arrays.copyOf(renderableAnimated, capacity);
+        spritesResolved = spritesResolved == null ? new boolean[capacity] : Arrays.copyOf(spritesResolved, capacity);
+        renderableSprites = renderableSprites == null ? new SpriteAtlas[capacity] : Arrays.copyOf(renderableSprites, capacity);
+    }
+
+    public void updateMovers(SpatialGrid grid) {
+        for (int m = 0; m < moverCount; m++) {
+            int id = moverEntity[m];
+            int oldX = x[id];
+            int oldY = y[id];
+            prevX[id] = oldX;
+            prevY[id] = oldY;
+            if (moverForward[m]) {
+                moverPosition[m] += moverSpeed[m];
+                if (moverPosition[m] >= moverEnd[m]) {
+                    moverForward[m] = false;
+                }
+            } else {
+                moverPosition[m] -= moverSpeed[m];
+                if (moverPosition[m] <= moverStart[m]) {
+                    moverForward[m] = true;
+                }
+            }
+            if (moverHorizontal[m]) {
+                x[id] = (int) moverPosition[m];
+            } else {
+                y[id] = (int) moverPosition[m];
+            }
+            if (x[id] != oldX || y[id] != oldY) {
+                grid.move(id, oldX, oldY, x[id], y[id], width[id], height[id]);
+            }
+        }
+    }
+
+    public void updateTimers() {
+        for (int t = 0; t < timerCount; t++) {
+            int id = timerEntity[t];
+            if (!visible[id] && !timerSpent[t]) {
+                timerTicks[t]++;
+                if (timerTicks[t] >= timerDuration[t]) {
+                    visible[id] = true;
+                    timerTicks[t] = 0;
+                    timerSpent[t] = timerMode[t] == TIMER_ONCE;
+                }
+            }
+        }
+    }
+
+    public void updateAnimations() {
+        for (int r = 0; r < renderableCount; r++) {
+            if (renderableAnimated[r]) {
+                renderableTick[r]++;
+            }
+        }
+    }
+
+    public void hide(int id) {
+        int t = timerOf[id];
+        if (t >= 0 && visible[id] && !timerSpent[t]) {
+            visible[id] = false;
+            timerTicks[t] = 0;
+        }
+    }
+
+    public void hideGroup(int group) {
+        for (int t = 0; t < timerCount; t++) {
+            if (timerGroup[t] == group) {
+                hide(timerEntity[t]);
+            }
+        }
+    }
+
+    public void showGroup(int group) {
+        for (int t = 0; t < timerCount; t++) {
+            if (timerGroup[t] == group) {
+                visible[timerEntity[t]] = true;
+                timerTicks[t] = 0;
+            }
+        }
+    }
+
+    public void resetTimers(byte mode) {
+        for (int t = 0; t < timerCount; t++) {
+            if (timerMode[t] == mode) {
+                visible[timerEntity[t]] = true;
+                timerSpent[t] = false;
+                timerTicks[t] = 0;
+            }
+        }
+    }
+
+    public void prepare(GraphicsConfiguration config) {
+        for (int r = 0; r < renderableCount; r++) {
+            if (spritesResolved[r]) {
+                continue;
+            }
+            int id = renderableEntity[r];
+            if (renderableSprite[r] == SPRITE_HAZARD) {
+                renderableSprites[r] = SpriteAtlas.forHazard(hazardType[hazardOf[id]], width[id], height[id], config);
+            } else if (renderableSprite[r] == SPRITE_GOAL) {
+                renderableSprites[r] = SpriteAtlas.forGoal(width[id], height[id], config);
+            }
+            spritesResolved[r] = true;
+        }
+    }
+
+    public int triggerActions(int id) {
+        int t = triggerOf[id];
+        return t >= 0 ? triggerAction[t] : 0;
+    }
+
+    public boolean isLethal(int id) {
+        int h = hazardOf[id];
+        return h >= 0 && hazardLethal[h];
+    }
+
+    public boolean isIce(int id) {
+        int h = hazardOf[id];
+        return h >= 0 && hazardType[h] == Hazard.HazardType.ICE;
+    }
+
+    public Hazard.HazardType getHazardType(int id) {
+        int h = hazardOf[id];
+        return h >= 0 ? hazardType[h] : null;
+    }
+
+    public long stateHash() {
+        long hash = count;
+        for (int id = 0; id < count; id++) {
+            hash = hash * 31 + x[id];
+            hash = hash * 31 + y[id];
+            hash = hash * 2 + (visible[id] ? 1 : 0);
+        }
+        for (int m = 0; m < moverCount; m++) {
+            hash = hash * 31 + Float.floatToIntBits(moverPosition[m]);
+            hash = hash * 2 + (moverForward[m] ? 1 : 0);
+        }
+        for (int t = 0; t < timerCount; t++) {
+            hash = hash * 31 + timerTicks[t];
+            hash = hash * 2 + (timerSpent[t] ? 1 : 0);
+        }
+        for (int t = 0; t < triggerCount; t++) {
+            hash = hash * 2 + (triggerArmed[t] ? 1 : 0);
+        }
+        return hash;
+    }
+
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(count);
+        for (int id = 0; id < count; id++) {
+            out.writeInt(x[id]);
+            out.writeInt(y[id]);
+            out.writeInt(prevX[id]);
+            out.writeInt(prevY[id]);
+            out.writeBoolean(visible[id]);
+        }
+        for (int m = 0; m < moverCount; m++) {
+            out.writeFloat(moverPosition[m]);
+            out.writeBoolean(moverForward[m]);
+        }
+        for (int t = 0; t < timerCount; t++) {
+            out.writeInt(timerTicks[t]);
+            out.writeBoolean(timerSpent[t]);
+        }
+        for (int t = 0; t < triggerCount; t++) {
+            out.writeBoolean(triggerArmed[t]);
+        }
+        for (int r = 0; r < renderableCount; r++) {
+            out.writeInt(renderableTick[r]);
+        }
+    }
+
+    public void readState(DataInput in, SpatialGrid grid) throws IOException {
+        int stored = in.readInt();
+        if (stored != count) {
+            throw new IllegalArgumentException("State has " + stored + " entities, level has " + count);
+        }
+        for (int id = 0; id < count; id++) {
+            int oldX = x[id];
+            int oldY = y[id];
+            x[id] = in.readInt();
+            y[id] = in.readInt();
+            prevX[id] = in.readInt();
+            prevY[id] = in.readInt();
+            visible[id] = in.readBoolean();
+            if (x[id] != oldX || y[id] != oldY) {
+                grid.move(id, oldX, oldY, x[id], y[id], width[id], height[id]);
+            }
+        }
+        for (int m = 0; m < moverCount; m++) {
+            moverPosition[m] = in.readFloat();
+            moverForward[m] = in.readBoolean();
+        }
+        for (int t = 0; t < timerCount; t++) {
+            timerTicks[t] = in.readInt();
+            timerSpent[t] = in.readBoolean();
+        }
+        for (int t = 0; t < triggerCount; t++) {
+            triggerArmed[t] = in.readBoolean();
+        }
+        for (int r = 0; r < renderableCount; r++) {
+            renderableTick[r] = in.readInt();
+        }
+    }
+
+    public int getX(int id) { return x[id]; }
+    public int getY(int id) { return y[id]; }
+    public int getWidth(int id) { return width[id]; }
+    public int getHeight(int id) { return height[id]; }
+    public boolean isVisible(int id) { return visible[id]; }
+}
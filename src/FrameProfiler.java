@@ -0,0 +1,149 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class FrameProfiler {
+    public static final int UPDATE = 0;
+    public static final int PLATFORMS = 1;
+    public static final int COLLISIONS = 2;
+    public static final int HAZARDS = 3;
+    public static final int RENDER = 4;
+    public static final int BACKGROUND = 5;
+    public static final int MENU = 6;
+    private static final String[] NAMES = { "update", "  platforms", "  collisions", "  hazards", "render", "  background", "  menu" };
+    private static final int SECTIONS = NAMES.length;
+    private static final long WINDOW_NANOS = 500000000L;
+    private static final int GRAPH_SAMPLES = 240;
+    private static final int GRAPH_HEIGHT = 60;
+    private static final long GRAPH_SCALE_NANOS = 50000000L;
+    private static final long FRAME_BUDGET_NANOS = 1000000000L / 60;
+    private static final int PANEL_WIDTH = GRAPH_SAMPLES + 16;
+    private static final int LINE_HEIGHT = 14;
+    private static final int LINE_COUNT = SECTIONS + 5;
+    private static final int PANEL_HEIGHT = LINE_COUNT * LINE_HEIGHT + GRAPH_HEIGHT + 20;
+
+    private final AtomicLongArray totals = new AtomicLongArray(SECTIONS);
+    private final AtomicLong ticks = new AtomicLong();
+
+    private final long[] graph = new long[GRAPH_SAMPLES];
+    private int graphHead = 0;
+    private long lastFrameNanos = 0;
+    private long frames = 0;
+
+    private final long[] windowTotals = new long[SECTIONS];
+    private long windowTicks;
+    private long windowFrames;
+    private long windowStart;
+    private long windowGcCount;
+    private long windowGcMillis;
+    private long windowAllocated;
+    private final String[] lines = new String[LINE_COUNT];
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final com.sun.management.ThreadMXBean threads;
+    private BufferedImage panel;
+
+    public FrameProfiler() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        threads = bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+        if (threads != null && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    public long lap(int section, long start) {
+        long now = System.nanoTime();
+        totals.lazySet(section, totals.get(section) + now - start);
+        return now;
+    }
+
+    public void tick() {
+        ticks.lazySet(ticks.get() + 1);
+    }
+
+    public long endFrame(long now) {
+        long interval = lastFrameNanos != 0 ? now - lastFrameNanos : -1;
+        if (interval >= 0) {
+            graph[graphHead] = interval;
+            graphHead = (graphHead + 1) % GRAPH_SAMPLES;
+        }
+        lastFrameNanos = now;
+        frames++;
+        return interval;
+    }
+
+    public int getPanelWidth() {
+        return PANEL_WIDTH;
+    }
+
+    public void render(Graphics2D g, int x, int y) {
+        long now = System.nanoTime();
+        if (windowStart == 0 || now - windowStart >= WINDOW_NANOS) {
+            summarize(now);
+        }
+        if (panel == null) {
+            panel = new BufferedImage(PANEL_WIDTH, PANEL_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D pg = panel.createGraphics();
+            pg.setColor(Palette.color(0, 0, 0, 170));
+            pg.fillRect(0, 0, PANEL_WIDTH, PANEL_HEIGHT);
+            pg.setColor(Palette.color(255, 255, 255, 60));
+            int budgetY = LINE_COUNT * LINE_HEIGHT + 12 + GRAPH_HEIGHT - (int) (GRAPH_HEIGHT * FRAME_BUDGET_NANOS / GRAPH_SCALE_NANOS);
+            pg.drawLine(8, budgetY, 8 + GRAPH_SAMPLES, budgetY);
+            pg.dispose();
+        }
+        g.drawImage(panel, x, y, null);
+        g.setFont(Palette.font("Monospaced", Font.PLAIN, 12));
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < LINE_COUNT; i++) {
+            if (lines[i] != null) {
+                g.drawString(lines[i], x + 8, y + (i + 1) * LINE_HEIGHT);
+            }
+        }
+        int base = y + LINE_COUNT * LINE_HEIGHT + 12 + GRAPH_HEIGHT;
+        for (int i = 0; i < GRAPH_SAMPLES; i++) {
+            long sample = graph[(graphHead + i) % GRAPH_SAMPLES];
+            int height = (int) Math.min(GRAPH_HEIGHT, sample * GRAPH_HEIGHT / GRAPH_SCALE_NANOS);
+            g.setColor(sample > FRAME_BUDGET_NANOS ? Color.RED : Color.GREEN);
+            g.drawLine(x + 8 + i, base, x + 8 + i, base - height);
+        }
+    }
+
+    private void summarize(long now) {
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean collector = collectors.get(i);
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        long allocated = threads != null && threads.isThreadAllocatedMemoryEnabled() ? threads.getTotalThreadAllocatedBytes() : -1;
+        long frameCount = frames - windowFrames;
+        if (windowStart != 0 && frameCount > 0) {
+            double seconds = (now - windowStart) / 1e9;
+            lines[0] = String.format("%.1f fps  %.2f ms/frame", frameCount / seconds, (now - windowStart) / 1e6 / frameCount);
+            for (int s = 0; s < SECTIONS; s++) {
+                long total = totals.get(s);
+                lines[s + 1] = String.format("%-13s %7.3f ms", NAMES[s], (total - windowTotals[s]) / 1e6 / frameCount);
+                windowTotals[s] = total;
+            }
+            lines[SECTIONS + 1] = String.format("ticks/frame   %7.2f", (ticks.get() - windowTicks) / (double) frameCount);
+            lines[SECTIONS + 2] = String.format("gc            %d pauses, %d ms", gcCount - windowGcCount, gcMillis - windowGcMillis);
+            lines[SECTIONS + 3] = allocated < 0 ? "alloc         n/a"
+                    : String.format("alloc         %.2f MB/s", (allocated - windowAllocated) / seconds / (1 << 20));
+            lines[SECTIONS + 4] = "frame time (0-" + GRAPH_SCALE_NANOS / 1000000 + " ms)";
+        } else {
+            for (int s = 0; s < SECTIONS; s++) {
+                windowTotals[s] = totals.get(s);
+            }
+        }
+        windowTicks = ticks.get();
+        windowFrames = frames;
+        windowStart = now;
+        windowGcCount = gcCount;
+        windowGcMillis = gcMillis;
+        windowAllocated = allocated;
+    }
+}
@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class FrameTimeHistogram {
+    public static final String FILE_PROPERTY = "vaultvault.frameHistogram";
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_VALUE = 1L << 40;
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final long[] counts = new long[index(MAX_VALUE) + 1];
+    private long total = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = 0;
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS * 2) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long lowest(int index) {
+        if (index < SUB_BUCKETS * 2) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+    private static long highest(int index) {
+        return lowest(index + 1) - 1;
+    }
+
+    public synchronized void record(long nanos) {
+        long value = Math.max(0, Math.min(MAX_VALUE, nanos));
+        counts[index(value)]++;
+        total++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public synchronized long getCount() {
+        return total;
+    }
+
+    public synchronized long percentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, highest(i));
+            }
+        }
+        return max;
+    }
+
+    public synchronized void write(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("# VaultVault frame-time histogram, times in milliseconds");
+            out.printf("frames %d%n", total);
+            if (total > 0) {
+                out.printf("min %.3f%n", min / 1e6);
+                out.printf("mean %.3f%n", sum / 1e6 / total);
+                for (double percentile : PERCENTILES) {
+                    out.printf("p%s %.3f%n", percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile),
+                            percentile(percentile) / 1e6);
+                }
+                out.printf("max %.3f%n", max / 1e6);
+            }
+            out.println("# bucket_low_ms bucket_high_ms count");
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    out.printf("%.3f %.3f %d%n", lowest(i) / 1e6, highest(i) / 1e6, counts[i]);
+                }
+            }
+        }
+    }
+}
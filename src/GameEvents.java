@@ -0,0 +1,84 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+public final class GameEvents {
+    private GameEvents() {
+    }
+
+    @Name("vaultvault.Tick")
+    @Label("Game Tick")
+    @Category({ "VaultVault", "Game Loop" })
+    @Description("One fixed simulation tick on the game thread")
+    public static final class Tick extends Event {
+        @Label("Tick")
+        public long tick;
+        @Label("Game State")
+        public String state;
+        @Label("Level")
+        public int level;
+    }
+
+    @Name("vaultvault.Frame")
+    @Label("Frame")
+    @Category({ "VaultVault", "Game Loop" })
+    @Description("Rendering of one frame from the latest world snapshot")
+    public static final class Frame extends Event {
+        @Label("Snapshot Tick")
+        public long tick;
+        @Label("Game State")
+        public String state;
+        @Label("Interpolation")
+        public float alpha;
+        @Label("Frame Interval")
+        @Timespan(Timespan.NANOSECONDS)
+        public long interval;
+    }
+
+    @Name("vaultvault.LevelLoad")
+    @Label("Level Load")
+    @Category({ "VaultVault", "Levels" })
+    @Description("Starting a level, including waiting for a prepared level or loading it synchronously")
+    public static final class LevelLoad extends Event {
+        @Label("Level")
+        public int level;
+        @Label("Level Name")
+        public String name;
+        @Label("Prepared In Background")
+        public boolean prepared;
+    }
+
+    @Name("vaultvault.HazardDeath")
+    @Label("Hazard Death")
+    @Category({ "VaultVault", "Gameplay" })
+    @Description("The player touched a hazard or fell out of the level and was respawned")
+    public static final class HazardDeath extends Event {
+        @Label("Level Name")
+        public String level;
+        @Label("Cause")
+        public String cause;
+        @Label("X")
+        public float x;
+        @Label("Y")
+        public float y;
+    }
+
+    @Name("vaultvault.LevelComplete")
+    @Label("Level Complete")
+    @Category({ "VaultVault", "Gameplay" })
+    @Description("The player reached the goal")
+    public static final class LevelComplete extends Event {
+        @Label("Level")
+        public int level;
+        @Label("Level Name")
+        public String name;
+        @Label("Ticks")
+        public long ticks;
+        @Label("Level Time")
+        @Timespan(Timespan.MILLISECONDS)
+        public long time;
+    }
+}
@@ -0,0 +1,48 @@
+import java.util.Arrays;
+
+public class GhostRecorder {
+    private byte[] deltas = new byte[1024];
+    private int length = 0;
+    private int sampleCount = 0;
+    private int startX, startY;
+    private int lastX, lastY;
+
+    public void reset(float x, float y) {
+        startX = Math.round(x);
+        startY = Math.round(y);
+        lastX = startX;
+        lastY = startY;
+        length = 0;
+        sampleCount = 1;
+    }
+
+    public void record(float x, float y) {
+        int qx = Math.round(x);
+        int qy = Math.round(y);
+        writeZigZag(qx - lastX);
+        writeZigZag(qy - lastY);
+        lastX = qx;
+        lastY = qy;
+        sampleCount++;
+    }
+
+    private void writeZigZag(int delta) {
+        int value = (delta << 1) ^ (delta >> 31);
+        if (length + 5 > deltas.length) {
+            deltas = Arrays.copyOf(deltas, deltas.length * 2);
+        }
+        while ((value & ~0x7F) != 0) {
+            deltas[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        deltas[length++] = (byte) value;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public GhostTrajectory toTrajectory(int levelIndex, String levelName, TickRate tickRate, long completedTicks) {
+        return new GhostTrajectory(levelIndex, levelName, tickRate, completedTicks, sampleCount, startX, startY, Arrays.copyOf(deltas, length));
+    }
+}
@@ -0,0 +1,156 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class GhostTrajectory {
+    public static final int MAGIC = 0x56564748;
+    public static final int VERSION = 2;
+    public static final String EXTENSION = ".vvg";
+
+    private final int levelIndex;
+    private final String levelName;
+    private final TickRate tickRate;
+    private final long completedTicks;
+    private final int sampleCount;
+    private final int startX;
+    private final int startY;
+    private final byte[] deltas;
+
+    public GhostTrajectory(int levelIndex, String levelName, TickRate tickRate, long completedTicks, int sampleCount, int startX, int startY, byte[] deltas) {
+        this.levelIndex = levelIndex;
+        this.levelName = levelName;
+        this.tickRate = tickRate;
+        this.completedTicks = completedTicks;
+        this.sampleCount = sampleCount;
+        this.startX = startX;
+        this.startY = startY;
+        this.deltas = deltas;
+    }
+
+    public static GhostTrajectory read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            int magic = in.readInt();
+            if (magic != MAGIC) {
+                throw new IOException(file + ": not a ghost (bad magic 0x" + Integer.toHexString(magic) + ")");
+            }
+            int version = in.readShort();
+            if (version != VERSION && version != 1) {
+                throw new IOException(file + ": unsupported ghost version " + version);
+            }
+            int levelIndex = in.readInt();
+            String levelName = in.readUTF();
+            int hz = version == 1 ? TickRate.REFERENCE_HZ : in.readShort();
+            TickRate tickRate;
+            try {
+                tickRate = TickRate.of(hz);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + ": unsupported ghost tick rate " + hz + " Hz");
+            }
+            long completedTicks = in.readLong();
+            int sampleCount = in.readInt();
+            int startX = in.readInt();
+            int startY = in.readInt();
+            if (sampleCount < 0) {
+                throw new IOException(file + ": negative sample count " + sampleCount);
+            }
+            int deltaLength = in.readInt();
+            if (deltaLength < 0 || deltaLength > in.available()) {
+                throw new IOException(file + ": delta length " + deltaLength + " out of range");
+            }
+            byte[] deltas = new byte[deltaLength];
+            in.readFully(deltas);
+            if (!decodes(deltas, sampleCount)) {
+                throw new IOException(file + ": delta stream ends before " + sampleCount + " samples");
+            }
+            return new GhostTrajectory(levelIndex, levelName, tickRate, completedTicks, sampleCount, startX, startY, deltas);
+        }
+    }
+
+    private static boolean decodes(byte[] deltas, int sampleCount) {
+        int position = 0;
+        for (long values = 2L * Math.max(0, sampleCount - 1); values > 0; values--) {
+            int length = 0;
+            do {
+                if (position == deltas.length || ++length > 5) {
+                    return false;
+                }
+            } while ((deltas[position++] & 0x80) != 0);
+        }
+        return true;
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(levelIndex);
+            out.writeUTF(levelName);
+            out.writeShort(tickRate.getHz());
+            out.writeLong(completedTicks);
+            out.writeInt(sampleCount);
+            out.writeInt(startX);
+            out.writeInt(startY);
+            out.writeInt(deltas.length);
+            out.write(deltas);
+        }
+    }
+
+    public int getLevelIndex() { return levelIndex; }
+    public String getLevelName() { return levelName; }
+    public TickRate getTickRate() { return tickRate; }
+    public long getCompletedTicks() { return completedTicks; }
+    public double getCompletedSeconds() { return tickRate.seconds(completedTicks); }
+    public int getSampleCount() { return sampleCount; }
+    public int getEncodedBytes() { return deltas.length; }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private int position = 0;
+        private int sample = 0;
+        private int x = startX;
+        private int y = startY;
+        private int prevX = startX;
+        private int prevY = startY;
+
+        public void advanceTo(long tick, TickRate rate) {
+            advanceTo(tick * tickRate.getHz() / rate.getHz());
+        }
+
+        public void advanceTo(long tick) {
+            prevX = x;
+            prevY = y;
+            while (sample < tick && sample + 1 < sampleCount) {
+                prevX = x;
+                prevY = y;
+                x += readZigZag();
+                y += readZigZag();
+                sample++;
+            }
+        }
+
+        private int readZigZag() {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = deltas[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public GhostTrajectory getTrajectory() { return GhostTrajectory.this; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getPrevX() { return prevX; }
+        public int getPrevY() { return prevY; }
+    }
+}
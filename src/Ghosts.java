@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class Ghosts {
+    public static final String DIRECTORY_PROPERTY = "vaultvault.ghosts";
+    public static final String DEFAULT_DIRECTORY = "ghosts";
+    public static final String PERSONAL_BEST = "pb";
+    public static final int MAX_GHOSTS = 4;
+    public static final int KIND_PERSONAL_BEST = 0;
+    public static final int KIND_OTHER = 1;
+    private static final ExecutorService IO = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Path directory;
+    private final GhostRecorder recorder = new GhostRecorder();
+    private final GhostTrajectory.Cursor[] cursors = new GhostTrajectory.Cursor[MAX_GHOSTS];
+    private final int[] kinds = new int[MAX_GHOSTS];
+    private int cursorCount = 0;
+    private long attempt = -1;
+    private int levelIndex;
+    private String levelName;
+    private TickRate tickRate = TickRate.of(TickRate.REFERENCE_HZ);
+    private boolean recording = false;
+    private CompletableFuture<Loaded> loading;
+    private GhostTrajectory personalBest;
+    private final Map<Integer, GhostTrajectory> savedBests = new HashMap<>();
+
+    public Ghosts(Path directory) {
+        this.directory = directory;
+    }
+
+    public static Ghosts openDefault() {
+        return new Ghosts(Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)));
+    }
+
+    public void update(Simulation simulation) {
+        if (simulation.getAttempt() != attempt) {
+            begin(simulation);
+        }
+        if (loading != null && loading.isDone()) {
+            attach(loading.join());
+            loading = null;
+        }
+        Player player = simulation.getPlayer();
+        if (recording) {
+            if (simulation.getPhase() == Simulation.Phase.PLAYING) {
+                while (recorder.getSampleCount() <= simulation.getLevelTicks()) {
+                    recorder.record(player.getX(), player.getY());
+                }
+            } else {
+                recording = false;
+                if (simulation.getPhase() == Simulation.Phase.LEVEL_COMPLETE) {
+                    complete(simulation.getLevelTicks());
+                }
+            }
+        }
+        for (int i = 0; i < cursorCount; i++) {
+            cursors[i].advanceTo(simulation.getLevelTicks(), tickRate);
+        }
+    }
+
+    private void begin(Simulation simulation) {
+        attempt = simulation.getAttempt();
+        levelIndex = simulation.getLevelIndex();
+        levelName = simulation.getLevelName(levelIndex);
+        tickRate = simulation.getTickRate();
+        recorder.reset(simulation.getPlayer().getX(), simulation.getPlayer().getY());
+        recording = true;
+        cursorCount = 0;
+        personalBest = savedBests.get(levelIndex);
+        int index = levelIndex;
+        String name = levelName;
+        loading = CompletableFuture.supplyAsync(() -> load(index, name), IO);
+    }
+
+    private static final class Loaded {
+        GhostTrajectory personalBest;
+        final List<GhostTrajectory> others = new ArrayList<>();
+    }
+
+    private Loaded load(int index, String name) {
+        Loaded loaded = new Loaded();
+        if (!Files.isDirectory(directory)) {
+            return loaded;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*-" + index + GhostTrajectory.EXTENSION)) {
+            for (Path file : files) {
+                try {
+                    GhostTrajectory ghost = GhostTrajectory.read(file);
+                    if (ghost.getLevelIndex() != index || !ghost.getLevelName().equals(name)) {
+                        continue;
+                    }
+                    if (file.equals(personalBestPath(index))) {
+                        loaded.personalBest = ghost;
+                    } else {
+                        loaded.others.add(ghost);
+                    }
+                } catch (IOException e) {
+                    System.out.println("Skipping ghost " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not list ghosts in " + directory + ": " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    private void attach(Loaded loaded) {
+        if (loaded.personalBest != null && (personalBest == null || loaded.personalBest.getCompletedSeconds() < personalBest.getCompletedSeconds())) {
+            personalBest = loaded.personalBest;
+        }
+        if (personalBest != null) {
+            kinds[cursorCount] = KIND_PERSONAL_BEST;
+            cursors[cursorCount++] = personalBest.cursor();
+        }
+        for (GhostTrajectory ghost : loaded.others) {
+            if (cursorCount == MAX_GHOSTS) {
+                break;
+            }
+            kinds[cursorCount] = KIND_OTHER;
+            cursors[cursorCount++] = ghost.cursor();
+        }
+    }
+
+    private Path personalBestPath(int index) {
+        return directory.resolve(PERSONAL_BEST + "-" + index + GhostTrajectory.EXTENSION);
+    }
+
+    private void complete(long completedTicks) {
+        if (personalBest != null && personalBest.getCompletedSeconds() <= tickRate.seconds(completedTicks)) {
+            return;
+        }
+        GhostTrajectory run = recorder.toTrajectory(levelIndex, levelName, tickRate, completedTicks);
+        personalBest = run;
+        savedBests.put(levelIndex, run);
+        Path target = personalBestPath(levelIndex);
+        IO.execute(() -> {
+            try {
+                Files.createDirectories(directory);
+                Path temp = Files.createTempFile(directory, PERSONAL_BEST, GhostTrajectory.EXTENSION);
+                run.write(temp);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.out.println("Could not save ghost " + target + ": " + e.getMessage());
+            }
+        });
+    }
+
+    public void capture(WorldSnapshot snapshot) {
+        snapshot.captureGhosts(cursors, kinds, cursorCount, personalBest != null ? Math.round(personalBest.getCompletedSeconds() * tickRate.getHz()) : -1);
+    }
+}
@@ -1,37 +1,37 @@
 import java.awt.*;
 
-public class Goal {
-    private int x, y, width, height;
-    private Color baseColor = Color.YELLOW;
-    private Color highlightColor = new Color(255, 215, 0);
-    private boolean animate = true;
-    private int animationTick = 0;
-
-    public Goal(int x, int y, int width, int height) {
-        this.x = x;
-        this.y = y;
-        this.width = width;
-        this.height = height;
+public final class Goal {
+    static final int PULSE_AMPLITUDE = 30;
+    static final int PULSE_FRAMES = PULSE_AMPLITUDE * 2 + 1;
+
+    private Goal() {
+    }
+
+    private static final class Paints {
+        static final Color BASE = Color.YELLOW;
+        static final Color HIGHLIGHT = Palette.color(255, 215, 0);
     }
 
-    public void update() {
-        if (animate) {
-            animationTick++;
+    static void draw(Graphics g, SpriteAtlas sprites, int x, int y, int width, int height, int tick) {
+        int pulse = (int)(Math.sin(tick * 0.1) * PULSE_AMPLITUDE);
+        if (sprites != null) {
+            sprites.draw(g, pulse + PULSE_AMPLITUDE, x, y);
+        } else {
+            paint(g, x, y, width, height, pulse);
         }
     }
 
-    public void render(Graphics g) {
-        int pulse = (int)(Math.sin(animationTick * 0.1) * 30);
-        Color currentColor = new Color(
-                Math.min(255, baseColor.getRed() + pulse),
-                Math.min(255, baseColor.getGreen() + pulse),
-                Math.min(255, baseColor.getBlue())
+    static void paint(Graphics g, int x, int y, int width, int height, int pulse) {
+        Color currentColor = Palette.color(
+                Math.min(255, Paints.BASE.getRed() + pulse),
+                Math.min(255, Paints.BASE.getGreen() + pulse),
+                Math.min(255, Paints.BASE.getBlue())
         );
 
         g.setColor(currentColor);
         g.fillRect(x, y, width, height);
 
-        g.setColor(highlightColor);
+        g.setColor(Paints.HIGHLIGHT);
         g.fillRect(x + 5, y + 5, width - 10, 5);
         g.fillRect(x + 5, y + height - 10, width - 10, 5);
 
@@ -44,13 +44,4 @@ public class Goal {
                 3
         );
     }
-
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
-    }
-
-    public int getX() { return x; }
-    public int getY() { return y; }
-    public int getWidth() { return width; }
-    public int getHeight() { return height; }
 }
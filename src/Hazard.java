@@ -1,11 +1,6 @@
 import java.awt.*;
 
-public class Hazard {
-    private int x, y, width, height;
-    private HazardType type;
-    private Color color;
-    private int animationTick = 0;
-
+public final class Hazard {
     public enum HazardType {
         SPIKES,
         LAVA,
@@ -14,58 +9,94 @@ public class Hazard {
         ICE
     }
 
-    public Hazard(int x, int y, int width, int height, HazardType type) {
-        this.x = x;
-        this.y = y;
-        this.width = width;
-        this.height = height;
-        this.type = type;
+    private Hazard() {
+    }
+
+    private static final class Paints {
+        static final Color LAVA_BUBBLE = Palette.color(255, 255, 150);
+        static final Color ELECTRIC_ARC = Palette.color(80, 220, 255, 180);
+        static final Color ICE = Palette.color(180, 240, 255);
+        static final Color ICE_SPARKLE = Palette.color(255, 255, 255, 120);
+        static final Stroke ARC_STROKE = Palette.stroke(3f);
+        static final Stroke DEFAULT_STROKE = Palette.stroke(1f);
+    }
+
+    static void draw(Graphics g, SpriteAtlas sprites, HazardType type, int x, int y, int width, int height, int tick) {
+        if (sprites != null) {
+            sprites.draw(g, frameIndex(type, tick, height), x, y);
+        } else {
+            paint(g, type, x, y, width, height, tick);
+        }
+    }
 
+    static int frameCount(HazardType type, int height) {
         switch (type) {
-            case SPIKES:
-                this.color = Color.GRAY;
-                break;
             case LAVA:
-                this.color = Color.ORANGE;
-                break;
+                return 3;
             case ELECTRIC:
-                this.color = new Color(80, 220, 255);
-                break;
+                return 16;
             case SAW:
-                this.color = Color.LIGHT_GRAY;
-                break;
+                return 60;
             case ICE:
-                this.color = new Color(180, 240, 255);
-                break;
+                if (height <= 0) {
+                    return Integer.MAX_VALUE;
+                }
+                return 16 / gcd(16, height) * height;
+            default:
+                return 1;
         }
     }
 
-    public void update() {
-        animationTick++;
+    static int frameIndex(HazardType type, int tick, int height) {
+        switch (type) {
+            case LAVA:
+                return (tick % 40) / 15;
+            case ELECTRIC:
+                return tick % 16;
+            case SAW:
+                return tick % 60;
+            case ICE:
+                return tick % frameCount(type, height);
+            default:
+                return 0;
+        }
+    }
+
+    static int frameTick(HazardType type, int frame) {
+        return type == HazardType.LAVA ? frame * 15 : frame;
     }
 
-    public void render(Graphics g) {
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    static void paint(Graphics g, HazardType type, int x, int y, int width, int height, int tick) {
         switch (type) {
             case SPIKES:
-                renderSpikes(g);
+                paintSpikes(g, x, y, width, height);
                 break;
             case LAVA:
-                renderLava(g);
+                paintLava(g, x, y, width, height, tick);
                 break;
             case ELECTRIC:
-                renderElectric(g);
+                paintElectric(g, x, y, width, height, tick);
                 break;
             case SAW:
-                renderSaw(g);
+                paintSaw(g, x, y, width, height, tick);
                 break;
             case ICE:
-                renderIce(g);
+                paintIce(g, x, y, width, height, tick);
                 break;
         }
     }
 
-    private void renderSpikes(Graphics g) {
-        g.setColor(color);
+    private static void paintSpikes(Graphics g, int x, int y, int width, int height) {
+        g.setColor(Color.GRAY);
         int spikeWidth = 10;
         int numSpikes = width / spikeWidth;
         for (int i = 0; i < numSpikes; i++) {
@@ -76,11 +107,11 @@ public class Hazard {
         }
     }
 
-    private void renderLava(Graphics g) {
-        g.setColor(color);
+    private static void paintLava(Graphics g, int x, int y, int width, int height, int tick) {
+        g.setColor(Color.ORANGE);
         g.fillRect(x, y, width, height);
-        g.setColor(new Color(255, 255, 150));
-        int bubblePhase = animationTick % 40;
+        g.setColor(Paints.LAVA_BUBBLE);
+        int bubblePhase = tick % 40;
         for (int i = 0; i < width; i += 15) {
             if ((i / 15) % 3 == bubblePhase / 15) {
                 g.fillOval(x + i, y - 3, 6, 6);
@@ -88,35 +119,35 @@ public class Hazard {
         }
     }
 
-    private void renderElectric(Graphics g) {
+    private static void paintElectric(Graphics g, int x, int y, int width, int height, int tick) {
         Graphics2D g2d = (Graphics2D) g;
-        g2d.setStroke(new BasicStroke(3f));
+        g2d.setStroke(Paints.ARC_STROKE);
         int segments = 8;
         int[] xs = new int[segments + 1];
         int[] ys = new int[segments + 1];
         for (int i = 0; i <= segments; i++) {
             xs[i] = x + (width * i) / segments;
-            int phase = (animationTick + i * 4) % 16;
+            int phase = (tick + i * 4) % 16;
             ys[i] = y + height / 2 + (int)(Math.sin((phase / 16.0) * 2 * Math.PI) * (height / 3));
         }
-        g2d.setColor(new Color(80, 220, 255, 180));
+        g2d.setColor(Paints.ELECTRIC_ARC);
         for (int i = 0; i < segments; i++) {
             g2d.drawLine(xs[i], ys[i], xs[i+1], ys[i+1]);
         }
-        g2d.setStroke(new BasicStroke(1f));
+        g2d.setStroke(Paints.DEFAULT_STROKE);
     }
 
-    private void renderSaw(Graphics g) {
+    private static void paintSaw(Graphics g, int x, int y, int width, int height, int tick) {
         Graphics2D g2d = (Graphics2D) g;
         int cx = x + width / 2;
         int cy = y + height / 2;
         int radius = Math.min(width, height) / 2 - 2;
         int teeth = 12;
         double angleStep = 2 * Math.PI / teeth;
-        double rotation = (animationTick % 60) * (2 * Math.PI / 60);
+        double rotation = (tick % 60) * (2 * Math.PI / 60);
         g2d.setColor(Color.DARK_GRAY);
         g2d.fillOval(cx - radius, cy - radius, radius * 2, radius * 2);
-        g2d.setColor(color);
+        g2d.setColor(Color.LIGHT_GRAY);
         for (int i = 0; i < teeth; i++) {
             double angle = i * angleStep + rotation;
             int tx1 = cx + (int)(Math.cos(angle) * radius);
@@ -133,34 +164,26 @@ public class Hazard {
         g2d.fillOval(cx - radius/2, cy - radius/2, radius, radius);
     }
 
-    private void renderIce(Graphics g) {
-        g.setColor(color);
+    private static void paintIce(Graphics g, int x, int y, int width, int height, int tick) {
+        g.setColor(Paints.ICE);
         g.fillRect(x, y, width, height);
-        g.setColor(new Color(255, 255, 255, 120));
+        g.setColor(Paints.ICE_SPARKLE);
         for (int i = 0; i < width; i += 16) {
-            int sparkleX = x + i + (animationTick % 16);
-            int sparkleY = y + (animationTick * (i+3) % height);
+            int sparkleX = x + i + (tick % 16);
+            int sparkleY = y + (tick * (i+3) % height);
             g.fillRect(sparkleX, sparkleY, 2, 6);
         }
     }
 
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
-    }
-
-    public HazardType getType() {
-        return type;
-    }
-
-    public static void applyIceSlideEffect(Player player) {
-        float slideFriction = 0.97f;
+    public static void applyIceSlideEffect(Player player, float seconds) {
+        float slideFriction = (float) Math.pow(0.97, TickRate.REFERENCE_HZ * (double) seconds);
         if (player.getMovingLeft()) {
-            player.setVelocityX(-5.0f);
+            player.setVelocityX(-300.0f);
         } else if (player.getMovingRight()) {
-            player.setVelocityX(5.0f);
+            player.setVelocityX(300.0f);
         } else {
             player.setVelocityX(player.getVelocityX() * slideFriction);
-            if (Math.abs(player.getVelocityX()) < 0.3f) {
+            if (Math.abs(player.getVelocityX()) < 18.0f) {
                 player.setVelocityX(0);
             }
         }
@@ -0,0 +1,67 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InputQueue {
+    public static final int KEY_PRESSED = 0;
+    public static final int KEY_RELEASED = 1;
+    public static final int MOUSE_CLICKED = 2;
+    public static final int DEFAULT_CAPACITY = 256;
+
+    public interface Handler {
+        void input(int type, int a, int b, long nanos);
+    }
+
+    private final int mask;
+    private final int[] types;
+    private final int[] firsts;
+    private final int[] seconds;
+    private final long[] times;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped = 0;
+
+    public InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InputQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+        types = new int[capacity];
+        firsts = new int[capacity];
+        seconds = new int[capacity];
+        times = new long[capacity];
+    }
+
+    public boolean offer(int type, int a, int b) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped = dropped + 1;
+            return false;
+        }
+        int slot = (int) t & mask;
+        types[slot] = type;
+        firsts[slot] = a;
+        seconds[slot] = b;
+        times[slot] = System.nanoTime();
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    public int drain(Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+        int count = (int) (t - h);
+        for (; h < t; h++) {
+            int slot = (int) h & mask;
+            handler.input(types[slot], firsts[slot], seconds[slot], times[slot]);
+        }
+        head.lazySet(t);
+        return count;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
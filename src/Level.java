@@ -1,45 +1,97 @@
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class Level {
     private Player player;
-    private List<Platform> platforms;
-    private List<Hazard> hazards;
-    private Goal goal;
-    private Color backgroundColor = new Color(25, 25, 50);
-    private Color platformColor = Color.GREEN;
+    private final Entities entities = new Entities();
+    private int backgroundColor = 0x191932;
+    private int platformColor = 0x00FF00;
+    private String name = "";
+    private int scenery = LevelFormat.SCENERY_NONE;
+    private int spawnX = 50, spawnY = 300;
+    private int respawnX = 50, respawnY;
+    private LevelBackground background;
     private boolean levelCompleted = false;
-    private static final int WID = VaultVault.WIDTH;
-    private static final int HEI = VaultVault.HEIGHT;
-    private DisappearingPlatform topLayerDisappearingPlatform = null;
-    private int topLayerY = -1;
-    private Platform6 topLayerPlatform6 = null;
-    private List<Platform6> platform6List = new ArrayList<>();
-    private boolean platform6CascadeTriggered = false;
+    private final int width;
+    private final int height;
+    private final TickRate tickRate;
+    private final float tickSeconds;
+    private final float iceFriction;
+    private final SpatialGrid grid = new SpatialGrid();
+    private FrameProfiler profiler;
+    private final Sweep sweep = new Sweep();
+    private final float[] pieceX = new float[MAX_SWEEP_STEPS];
+    private final float[] pieceY = new float[MAX_SWEEP_STEPS];
+    private final float[] pieceDx = new float[MAX_SWEEP_STEPS];
+    private final float[] pieceDy = new float[MAX_SWEEP_STEPS];
+    private int pieceCount;
+    private static final int GROUND_TOLERANCE = 5;
+    private static final int STAND_TOLERANCE = 10;
+    private static final int CASCADE_RESET_MARGIN = 50;
+    private static final int CASCADE_GROUP = 1;
+    private static final float STEP_UP_MIN_VELOCITY = -300f;
+    private static final float LOOKAHEAD_SECONDS = 5f / TickRate.REFERENCE_HZ;
+    private static final float ICE_ACCELERATION = 1800f;
+    private static final float ICE_MAX_SPEED = 480f;
+    private static final float ICE_FRICTION = 0.985f;
+    private static final float ICE_STOP_SPEED = 12f;
+    private static final int QUERY_SLACK = 2;
+    private static final int MAX_SWEEP_STEPS = 3;
 
     public Level() {
-        platforms = new ArrayList<>();
-        hazards = new ArrayList<>();
+        this(VaultVault.WIDTH, VaultVault.HEIGHT);
+    }
+
+    public Level(int width, int height) {
+        this(width, height, TickRate.getDefault());
+    }
+
+    public Level(int width, int height, TickRate tickRate) {
+        this.width = width;
+        this.height = height;
+        this.tickRate = tickRate;
+        tickSeconds = tickRate.getSeconds();
+        iceFriction = (float) Math.pow(ICE_FRICTION, TickRate.REFERENCE_HZ * (double) tickSeconds);
+        respawnY = height - 200;
     }
 
     public void addPlayer(Player player) {
         this.player = player;
     }
 
-    public void addPlatform(Platform platform) {
-        if (platform.getColor() == null) {
-            platform.setColor(platformColor);
+    public int addHazard(int x, int y, int width, int height, Hazard.HazardType type) {
+        int id = entities.create(x, y, width, height);
+        entities.addHazard(id, type);
+        if (type == Hazard.HazardType.ICE) {
+            entities.addCollider(id, Entities.FLOOR);
         }
-        platforms.add(platform);
+        entities.addRenderable(id, Entities.SPRITE_HAZARD, 0, true);
+        return index(id);
     }
 
-    public void addHazard(Hazard hazard) {
-        hazards.add(hazard);
+    public int addGoal(int x, int y, int width, int height) {
+        int id = entities.create(x, y, width, height);
+        entities.addTrigger(id, Entities.TRIGGER_GOAL, 0);
+        entities.addRenderable(id, Entities.SPRITE_GOAL, 0, true);
+        return index(id);
     }
 
-    public void setGoal(Goal goal) {
-        this.goal = goal;
+    public void prepareBackground(GraphicsConfiguration config) {
+        if (background == null) {
+            background = new LevelBackground(scenery, backgroundColor);
+        }
+        background.bake(config, width, height);
+    }
+
+    public void prepare(GraphicsConfiguration config) {
+        prepareBackground(config);
+        entities.prepare(config);
+    }
+
+    public Entities getEntities() {
+        return entities;
     }
 
     public boolean isLevelCompleted() {
@@ -50,426 +102,334 @@ public class Level {
         return levelCompleted;
     }
 
-    public void createLevel(int levelNumber) {
-        platforms.clear();
-        hazards.clear();
+    public void reset() {
+        name = "";
+        scenery = LevelFormat.SCENERY_NONE;
+        backgroundColor = 0x191932;
+        platformColor = 0x00FF00;
+        spawnX = 50;
+        spawnY = 300;
+        respawnX = 50;
+        respawnY = height - 200;
+        background = null;
+        entities.clear();
+        grid.clear();
         levelCompleted = false;
-
-        switch (levelNumber) {
-            case 0:
-                createTutorialLevel();
-                break;
-            case 1:
-                createLevel1();
-                break;
-            case 2:
-                createLevel2();
-                break;
-            case 3:
-                createLevel3();
-                break;
-            case 4:
-                createLevel4();
-                break;
-            case 5:
-                createLevel5();
-                break;
-            case 6:
-                createLevel6DonkeyKong();
-                break;
-            default:
-                createSampleLevel();
-                break;
-        }
     }
 
-    private void createLevel1() {
-        platformColor = new Color(0, 200, 0);
-        backgroundColor = new Color(25, 25, 50);
-
-        addPlatform(new Platform(100, HEI-120, 120, 20));
-        addPlatform(new Platform(300, HEI-200, 120, 20));
-        addPlatform(new MovingPlatform(500, HEI-250, 120, 20, 500, 700, 1.0f, true));
-        addPlatform(new Platform(800, HEI-180, 120, 20));
-        addHazard(new Hazard(420, HEI-100, 80, 20, Hazard.HazardType.SPIKES));
-        addPlatform(new Platform(0, HEI-50, WID, 50));
-        setGoal(new Goal(WID - 80, HEI-120, 40, 70));
-    }
-
-    private void createLevel2() {
-        platformColor = new Color(0, 150, 200);
-        backgroundColor = new Color(40, 40, 70);
-
-        addPlatform(new Platform(80, HEI-100, 100, 20));
-        addPlatform(new DisappearingPlatform(250, HEI-180, 100, 20, 100));
-        addPlatform(new Platform(400, HEI-260, 100, 20));
-        addPlatform(new MovingPlatform(600, HEI-340, 100, 20, 600, 800, 1.5f, true));
-        addPlatform(new Platform(850, HEI-420, 100, 20));
-        addHazard(new Hazard(350, HEI-80, 120, 20, Hazard.HazardType.LAVA));
-        addHazard(new Hazard(700, HEI-80, 120, 20, Hazard.HazardType.SPIKES));
-        addHazard(new Hazard(500, HEI-200, 80, 20, Hazard.HazardType.ELECTRIC));
-        addPlatform(new Platform(0, HEI-50, WID, 50));
-        setGoal(new Goal(WID - 80, HEI-190, 40, 70));
-    }
-
-    private void createLevel3() {
-        platformColor = new Color(70, 120, 60);
-        backgroundColor = new Color(36, 56, 36);
-
-        addPlatform(new Platform(60, HEI-100, 80, 20));
-        addPlatform(new DisappearingPlatform(200, HEI-180, 80, 20, 80));
-        addPlatform(new MovingPlatform(350, HEI-260, 80, 20, 350, 600, 2.0f, true));
-        addPlatform(new Platform(600, HEI-340, 80, 20));
-        addPlatform(new DisappearingPlatform(800, HEI-420, 80, 20, 60));
-        addPlatform(new Platform(900, HEI-500, 80, 20));
-        addHazard(new Hazard(150, HEI-80, 100, 20, Hazard.HazardType.LAVA));
-        addHazard(new Hazard(500, HEI-80, 100, 20, Hazard.HazardType.SPIKES));
-        addHazard(new Hazard(750, HEI-80, 100, 20, Hazard.HazardType.LAVA));
-        addHazard(new Hazard(700, HEI-300, 40, 40, Hazard.HazardType.SAW));
-        addPlatform(new Platform(0, HEI-50, WID, 50));
-        setGoal(new Goal(WID - 80, HEI-270, 40, 70));
-    }
-
-    private void createLevel4() {
-        platformColor = new Color(180, 220, 255);
-        backgroundColor = new Color(120, 180, 240);
-
-        addPlatform(new Platform(80, HEI-120, 120, 20));
-        addHazard(new Hazard(260, HEI-200, 120, 20, Hazard.HazardType.ICE));
-        addHazard(new Hazard(440, HEI-280, 120, 20, Hazard.HazardType.ICE));
-        addPlatform(new MovingPlatform(620, HEI-360, 120, 20, 620, 820, 1.2f, true));
-        addHazard(new Hazard(800, HEI-440, 120, 20, Hazard.HazardType.ICE));
-        addPlatform(new Platform(980, HEI-520, 120, 20));
-
-        addHazard(new Hazard(200, HEI-100, 80, 20, Hazard.HazardType.SPIKES));
-        addHazard(new Hazard(380, HEI-180, 80, 20, Hazard.HazardType.LAVA));
-        addHazard(new Hazard(560, HEI-260, 80, 20, Hazard.HazardType.SAW));
-        addHazard(new Hazard(740, HEI-340, 80, 20, Hazard.HazardType.ELECTRIC));
-        addHazard(new Hazard(920, HEI-420, 80, 20, Hazard.HazardType.SPIKES));
-        addHazard(new Hazard(1100, HEI-500, 80, 20, Hazard.HazardType.LAVA));
-
-        addHazard(new Hazard(1160, HEI-600, 120, 20, Hazard.HazardType.ICE));
-        addHazard(new Hazard(1280, HEI-580, 80, 20, Hazard.HazardType.SAW));
-        addPlatform(new Platform(1360, HEI-680, 120, 20));
-        addHazard(new Hazard(1480, HEI-660, 80, 20, Hazard.HazardType.ELECTRIC));
-
-        addPlatform(new Platform(0, HEI-50, WID, 50));
-        setGoal(new Goal(WID - 100, HEI-730, 60, 70));
-    }
-
-    private void createLevel5() {
-        platformColor = new Color(255, 50, 50);
-        backgroundColor = new Color(10, 0, 0);
-
-        addPlatform(new Platform(30, HEI-100, 70, 20));
-        addHazard(new Hazard(120, HEI-80, 80, 20, Hazard.HazardType.LAVA));
-        addPlatform(new DisappearingPlatform(220, HEI-180, 70, 20, 40));
-        addHazard(new Hazard(300, HEI-160, 80, 20, Hazard.HazardType.SPIKES));
-        addPlatform(new MovingPlatform(400, HEI-240, 70, 20, 400, 600, 2.5f, true));
-        addHazard(new Hazard(500, HEI-220, 80, 20, Hazard.HazardType.LAVA));
-        addPlatform(new DisappearingPlatform(620, HEI-320, 70, 20, 30));
-        addHazard(new Hazard(700, HEI-300, 80, 20, Hazard.HazardType.SPIKES));
-        addPlatform(new MovingPlatform(800, HEI-400, 70, 20, 800, 1000, 3.0f, true));
-        addHazard(new Hazard(900, HEI-380, 80, 20, Hazard.HazardType.LAVA));
-        addPlatform(new DisappearingPlatform(1020, HEI-480, 70, 20, 20));
-        addHazard(new Hazard(1100, HEI-460, 80, 20, Hazard.HazardType.SPIKES));
-        addPlatform(new Platform(1200, HEI-560, 70, 20));
-        addHazard(new Hazard(1270, HEI-540, 80, 20, Hazard.HazardType.LAVA));
-        addPlatform(new MovingPlatform(1400, HEI-640, 70, 20, 1400, 1600, 3.5f, true));
-        addHazard(new Hazard(1500, HEI-620, 80, 20, Hazard.HazardType.SPIKES));
-        addPlatform(new DisappearingPlatform(1620, HEI-700, 70, 20, 10));
-        addHazard(new Hazard(1700, HEI-680, 80, 20, Hazard.HazardType.LAVA));
-        addPlatform(new Platform(1800, HEI-760, 70, 20));
-        addHazard(new Hazard(1870, HEI-740, 80, 20, Hazard.HazardType.SPIKES));
-        for (int i = 0; i < 8; i++) {
-            int x = 2000 + i * 120;
-            if (i % 2 == 0) {
-                addPlatform(new MovingPlatform(x, HEI-800 + i*30, 90, 20, x, x+60, 2.0f + i*0.2f, true));
-                if (i % 4 == 0) {
-                    addHazard(new Hazard(x+100, HEI-780 + i*30, 60, 20, Hazard.HazardType.ELECTRIC));
-                } else {
-                    addHazard(new Hazard(x+100, HEI-780 + i*30, 60, 20, Hazard.HazardType.SAW));
-                }
-            } else {
-                addPlatform(new DisappearingPlatform(x, HEI-800 + i*30, 90, 20, 30 + i*10));
-                addHazard(new Hazard(x+100, HEI-780 + i*30, 80, 20, Hazard.HazardType.SPIKES));
-            }
+    public void copyFrom(Level source) {
+        if (source.width != width || source.height != height || source.tickRate.getHz() != tickRate.getHz()) {
+            throw new IllegalArgumentException("Cannot copy a " + source.width + "x" + source.height + " level at " + source.tickRate +
+                    " into a " + width + "x" + height + " level at " + tickRate);
         }
-        addPlatform(new Platform(0, HEI-50, 2500, 50));
-        setGoal(new Goal(WID - 80, HEI-450, 40, 70));
-    }
-
-    private void createLevel6DonkeyKong() {
-        platformColor = new Color(200, 100, 50);
-        backgroundColor = new Color(30, 20, 40);
-
-        int platformHeight = 20;
-        int platformLength = 800;
-        int gap = 120;
-        int y = HEI - 100;
-        boolean leftToRight = false;
-
-        platform6List.clear();
-        platform6CascadeTriggered = false;
-        topLayerPlatform6 = null;
-
-        for (int i = 0; i < 6; i++) {
-            int x = leftToRight ? 80 : WID - platformLength - 80;
-            addPlatform(new Platform(x, y, 180, platformHeight));
-            if (i == 5) {
-                Platform6 p6 = new Platform6(x + 180, y, 440, platformHeight, 60);
-                addPlatform(p6);
-                platform6List.add(p6);
-                topLayerPlatform6 = p6;
-                topLayerY = y;
-            } else {
-                DisappearingPlatform dp = new DisappearingPlatform(x + 180, y, 440, platformHeight, 60);
-                addPlatform(dp);
-            }
-            if (i == 5) {
-                int hazardX = x + 180 + 440;
-                int hazardY = y - 18;
-                addHazard(new Hazard(hazardX, hazardY, 20, 20, Hazard.HazardType.SPIKES));
-            }
-            addPlatform(new Platform(x + 620, y, 180, platformHeight));
-            y -= gap;
-            leftToRight = !leftToRight;
+        name = source.name;
+        scenery = source.scenery;
+        backgroundColor = source.backgroundColor;
+        platformColor = source.platformColor;
+        spawnX = source.spawnX;
+        spawnY = source.spawnY;
+        respawnX = source.respawnX;
+        respawnY = source.respawnY;
+        background = null;
+        levelCompleted = source.levelCompleted;
+        entities.copyFrom(source.entities);
+        grid.clear();
+        for (int id = 0; id < entities.size(); id++) {
+            index(id);
         }
+    }
+
+    public void setName(String name) { this.name = name; }
+    public String getName() { return name; }
+    public void setScenery(int scenery) { this.scenery = scenery; }
+    public int getScenery() { return scenery; }
+    public void setBackgroundColor(int rgb) { this.backgroundColor = rgb & 0xFFFFFF; }
+    public void setPlatformColor(int rgb) { this.platformColor = rgb & 0xFFFFFF; }
 
-        addPlatform(new Platform(0, HEI-50, WID, 50));
-        setGoal(new Goal(80, y + gap - 80, 40, 70));
+    public void setSpawn(int x, int y) {
+        spawnX = x;
+        spawnY = y;
     }
 
-    private void createTutorialLevel() {
-        platformColor = new Color(120, 220, 255);
-        backgroundColor = new Color(10, 10, 40);
+    public void setRespawn(int x, int y) {
+        respawnX = x;
+        respawnY = y;
+    }
 
-        addPlatform(new Platform(50, HEI - 150, 120, 20));
-        addPlatform(new Platform(220, HEI - 200, 100, 20));
-        addPlatform(new Platform(370, HEI - 250, 80, 20));
-        addPlatform(new Platform(500, HEI - 200, 100, 20));
-        addPlatform(new Platform(650, HEI - 150, 120, 20));
-        addPlatform(new Platform(820, HEI - 100, 100, 20));
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public TickRate getTickRate() { return tickRate; }
+    public int getSpawnX() { return spawnX; }
+    public int getSpawnY() { return spawnY; }
 
-        addPlatform(new Platform(320, HEI - 320, 60, 10));
-        addPlatform(new Platform(620, HEI - 320, 60, 10));
+    public int addStaticPlatform(int x, int y, int width, int height, int color) {
+        return index(platform(x, y, width, height, color));
+    }
 
-        addHazard(new Hazard(170, HEI - 130, 50, 20, Hazard.HazardType.SPIKES));
-        addHazard(new Hazard(450, HEI - 180, 40, 20, Hazard.HazardType.SPIKES));
-        addHazard(new Hazard(300, HEI - 80, 120, 20, Hazard.HazardType.LAVA));
-        addHazard(new Hazard(740, HEI - 80, 80, 20, Hazard.HazardType.LAVA));
+    public int addMovingPlatform(int x, int y, int width, int height, int color, float start, float end, float speed, boolean horizontal) {
+        int id = platform(x, y, width, height, color);
+        entities.addMover(id, start, end, speed * tickSeconds, horizontal);
+        return index(id);
+    }
 
-        addPlatform(new Platform(0, HEI - 50, WID, 50));
-        setGoal(new Goal(880, HEI - 170, 40, 70));
+    public int addDisappearingPlatform(int x, int y, int width, int height, int color, float duration) {
+        int id = platform(x, y, width, height, color);
+        entities.addTimer(id, tickRate.ticks(duration), Entities.TIMER_ONCE, 0);
+        entities.addTrigger(id, Entities.TRIGGER_VANISH_ON_APPROACH, 0);
+        return index(id);
+    }
+
+    public int addCascadingPlatform(int x, int y, int width, int height, int color, float duration, boolean top) {
+        int id = platform(x, y, width, height, color);
+        entities.addTimer(id, tickRate.ticks(duration), Entities.TIMER_REPEAT, CASCADE_GROUP);
+        entities.addTrigger(id, top ? Entities.TRIGGER_VANISH_ON_STAND | Entities.TRIGGER_CASCADE : Entities.TRIGGER_VANISH_ON_STAND,
+                top ? CASCADE_GROUP : 0);
+        return index(id);
+    }
+
+    private int platform(int x, int y, int width, int height, int color) {
+        int id = entities.create(x, y, width, height);
+        entities.addCollider(id, Entities.SOLID);
+        entities.addRenderable(id, Entities.SPRITE_RECT, resolveColor(color), false);
+        return id;
+    }
+
+    private int resolveColor(int color) {
+        return color < 0 ? platformColor : color & 0xFFFFFF;
+    }
+
+    private int index(int id) {
+        grid.insert(id, entities.x[id], entities.y[id], entities.width[id], entities.height[id]);
+        return id;
     }
 
     public void createSampleLevel() {
-        addPlatform(new Platform(200, 400, 100, 20));
-        addPlatform(new Platform(350, 350, 100, 20));
-        addPlatform(new Platform(500, 300, 100, 20));
-        addPlatform(new Platform(200, 250, 100, 20));
-        addPlatform(new Platform(50, 200, 100, 20));
+        addStaticPlatform(200, 400, 100, 20, -1);
+        addStaticPlatform(350, 350, 100, 20, -1);
+        addStaticPlatform(500, 300, 100, 20, -1);
+        addStaticPlatform(200, 250, 100, 20, -1);
+        addStaticPlatform(50, 200, 100, 20, -1);
+    }
+
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
     }
 
     public void update() {
-        for (Platform platform : platforms) {
-            platform.update();
+        long start = profiler != null ? System.nanoTime() : 0;
+        if (player != null) {
+            player.storePrevious();
+        }
+        entities.updateMovers(grid);
+        entities.updateTimers();
+        if (profiler != null) {
+            start = profiler.lap(FrameProfiler.PLATFORMS, start);
         }
 
         if (player != null) {
-            player.applyGravity();
-            player.update();
+            player.applyGravity(tickSeconds / 2);
+            player.updateVelocity();
             checkCollisions();
         }
-
-        if (goal != null) {
-            goal.update();
-            if (player.getBounds().intersects(goal.getBounds())) {
-                levelCompleted = true;
-            }
+        if (profiler != null) {
+            start = profiler.lap(FrameProfiler.COLLISIONS, start);
         }
 
-        for (Hazard hazard : hazards) {
-            hazard.update();
+        entities.updateAnimations();
+        if (player != null) {
+            updateTriggers();
         }
-
-        if (topLayerDisappearingPlatform != null && player != null) {
-            if (Math.abs(player.getY() + player.getHeight() - topLayerY) < 10 &&
-                player.getX() + player.getWidth() > topLayerDisappearingPlatform.getX() &&
-                player.getX() < topLayerDisappearingPlatform.getX() + topLayerDisappearingPlatform.getWidth()) {
-                topLayerDisappearingPlatform.triggerDisappear();
-            }
+        if (profiler != null) {
+            profiler.lap(FrameProfiler.HAZARDS, start);
         }
+    }
 
-        if (topLayerPlatform6 != null && player != null) {
-            if (Math.abs(player.getY() + player.getHeight() - topLayerY) < 10 &&
-                player.getX() + player.getWidth() > topLayerPlatform6.getX() &&
-                player.getX() < topLayerPlatform6.getX() + topLayerPlatform6.getWidth()) {
-                topLayerPlatform6.triggerDisappear();
+    private void updateTriggers() {
+        float bottom = player.getY() + player.getHeight();
+        for (int t = 0; t < entities.triggerCount; t++) {
+            int id = entities.triggerEntity[t];
+            int action = entities.triggerAction[t];
+            if ((action & Entities.TRIGGER_GOAL) != 0 &&
+                    Aabb.overlaps(player.getAabb(), entities.x[id], entities.y[id],
+                            entities.x[id] + entities.width[id], entities.y[id] + entities.height[id])) {
+                levelCompleted = true;
             }
-        }
-
-        if (!platform6List.isEmpty() && player != null) {
-            for (Platform6 p6 : platform6List) {
-                if (Math.abs(player.getY() + player.getHeight() - p6.getY()) < 10 &&
-                    player.getX() + player.getWidth() > p6.getX() &&
-                    player.getX() < p6.getX() + p6.getWidth()) {
-                    p6.triggerDisappear();
-                }
+            boolean standing = (action & (Entities.TRIGGER_VANISH_ON_STAND | Entities.TRIGGER_CASCADE)) != 0 &&
+                    Math.abs(bottom - entities.y[id]) < STAND_TOLERANCE && spansEntity(id);
+            if ((action & Entities.TRIGGER_VANISH_ON_STAND) != 0 && standing) {
+                entities.hide(id);
             }
-        }
-
-        if (!platform6List.isEmpty() && player != null && topLayerPlatform6 != null && !platform6CascadeTriggered) {
-            if (Math.abs(player.getY() + player.getHeight() - topLayerY) < 10 &&
-                player.getX() + player.getWidth() > topLayerPlatform6.getX() &&
-                player.getX() < topLayerPlatform6.getX() + topLayerPlatform6.getWidth() &&
-                player.getVelocityY() == 0) {
-                for (Platform6 p6 : platform6List) {
-                    p6.triggerDisappear();
+            if ((action & Entities.TRIGGER_CASCADE) != 0) {
+                if (!entities.triggerArmed[t] && standing && player.getVelocityY() == 0) {
+                    entities.hideGroup(entities.triggerGroup[t]);
+                    entities.triggerArmed[t] = true;
+                }
+                if (entities.triggerArmed[t] && bottom >= height - CASCADE_RESET_MARGIN) {
+                    entities.showGroup(entities.triggerGroup[t]);
+                    entities.triggerArmed[t] = false;
                 }
-                platform6CascadeTriggered = true;
             }
         }
+    }
 
-        if (platform6CascadeTriggered && player != null && player.getY() + player.getHeight() >= HEI - 50) {
-            for (Platform6 p6 : platform6List) {
-                p6.setVisible(true);
-            }
-            platform6CascadeTriggered = false;
-        }
+    private boolean spansEntity(int id) {
+        return Aabb.spansX(player.getX(), player.getX() + player.getWidth(),
+                entities.x[id], entities.x[id] + entities.width[id]);
     }
 
-    private void checkCollisions() {
+    void checkCollisions() {
         player.setOnGround(false);
-        player.applyGravity();
+        float dx = player.getVelocityX() * tickSeconds;
+        float dy = player.getVelocityY() * tickSeconds;
+        int candidates = queryCandidates(dx, dy);
 
-        final int GROUND_TOLERANCE = 5;
-        final int FRAMES_AHEAD = 5;
-
-        boolean onIce = false;
-        boolean wasOnIce = false;
-
-        for (Platform platform : platforms) {
-            if (platform instanceof Platform6 && !((Platform6) platform).isVisible()) {
+        for (int c = 0; c < candidates; c++) {
+            int id = grid.result(c);
+            if (!entities.visible[id] || (entities.triggerActions(id) & Entities.TRIGGER_VANISH_ON_APPROACH) == 0) {
                 continue;
             }
-            if (platform instanceof DisappearingPlatform && !((DisappearingPlatform) platform).isVisible()) {
-                continue;
+            int platY = entities.y[id];
+            if (dy > 0 && platY - (player.getY() + player.getHeight()) >= GROUND_TOLERANCE &&
+                    sweepPlayer(0, player.getVelocityY() * LOOKAHEAD_SECONDS, entities.x[id], platY,
+                            entities.x[id] + entities.width[id], platY + entities.height[id]) &&
+                    sweep.normalY < 0) {
+                entities.hide(id);
             }
+        }
 
-            Rectangle playerBounds = player.getBounds();
-            Rectangle platformBounds = platform.getBounds();
-
-            if (platform instanceof Platform6 &&
-                    ((Platform6) platform).isVisible() &&
-                    player.getVelocityY() > 0 &&
-                    player.getY() + player.getHeight() <= platform.getY() + GROUND_TOLERANCE &&
-                    player.getY() + player.getHeight() + player.getVelocityY() >= platform.getY() &&
-                    player.getX() + player.getWidth() > platform.getX() &&
-                    player.getX() < platform.getX() + platform.getWidth()) {
-                ((Platform6) platform).triggerDisappear();
-            }
+        if (resolveStart(candidates, dy)) {
+            dy = 0;
+        }
 
-            if (platform instanceof DisappearingPlatform &&
-                    ((DisappearingPlatform) platform).isVisible() &&
-                    player.getVelocityY() > 0 &&
-                    player.getY() + player.getHeight() <= platform.getY() - 5 &&
-                    player.getY() + player.getHeight() + (player.getVelocityY() * FRAMES_AHEAD) >= platform.getY() &&
-                    player.getX() + player.getWidth() > platform.getX() &&
-                    player.getX() < platform.getX() + platform.getWidth()) {
-                ((DisappearingPlatform) platform).triggerDisappear();
+        pieceCount = 0;
+        for (int step = 0; step < MAX_SWEEP_STEPS && (dx != 0 || dy != 0); step++) {
+            float time = 1;
+            int hitId = -1;
+            int normalX = 0, normalY = 0;
+            int hitMinX = 0, hitMinY = 0, hitMaxX = 0, hitMaxY = 0;
+            for (int c = 0; c < candidates; c++) {
+                int id = grid.result(c);
+                if (entities.collider[id] != Entities.SOLID || !entities.visible[id]) {
+                    continue;
+                }
+                int platX = entities.x[id];
+                int platY = entities.y[id];
+                int platMaxX = platX + entities.width[id];
+                int platMaxY = platY + entities.height[id];
+                if (sweepPlayer(dx, dy, platX, platY, platMaxX, platMaxY) && sweep.time < time) {
+                    time = sweep.time;
+                    hitId = id;
+                    normalX = sweep.normalX;
+                    normalY = sweep.normalY;
+                    hitMinX = platX;
+                    hitMinY = platY;
+                    hitMaxX = platMaxX;
+                    hitMaxY = platMaxY;
+                }
             }
-
-            boolean closeToGround = player.getY() + player.getHeight() <= platform.getY() + GROUND_TOLERANCE &&
-                    player.getY() + player.getHeight() + player.getVelocityY() >= platform.getY();
-
-            if (closeToGround &&
-                    player.getX() + player.getWidth() > platform.getX() &&
-                    player.getX() < platform.getX() + platform.getWidth()) {
-                player.setY(platform.getY() - player.getHeight());
-                player.setVelocityY(0);
-                player.setOnGround(true);
-
-                for (Hazard hazard : hazards) {
-                    if (hazard.getType() == Hazard.HazardType.ICE) {
-                        Rectangle iceRect = hazard.getBounds();
-                        if (player.getX() + player.getWidth() > iceRect.x &&
-                            player.getX() < iceRect.x + iceRect.width &&
-                            Math.abs((player.getY() + player.getHeight()) - iceRect.y) <= GROUND_TOLERANCE) {
-                            onIce = true;
-                        }
+            if (dy > 0) {
+                for (int c = 0; c < candidates; c++) {
+                    int id = grid.result(c);
+                    if (entities.collider[id] != Entities.FLOOR || !entities.visible[id]) {
+                        continue;
+                    }
+                    int floorY = entities.y[id];
+                    if (sweepPlayer(dx, dy, entities.x[id], floorY, entities.x[id] + entities.width[id], floorY + entities.height[id]) &&
+                            sweep.normalY < 0 && sweep.time < time) {
+                        time = sweep.time;
+                        hitId = id;
+                        normalX = 0;
+                        normalY = -1;
+                        hitMinY = floorY;
                     }
                 }
-            } else if (player.getTopBounds().intersects(platformBounds) && player.getVelocityY() < 0) {
-                player.setY(platform.getY() + platform.getHeight());
-                player.setVelocityY(0);
             }
 
-            if (player.getLeftBounds().intersects(platformBounds) && player.getVelocityX() < 0) {
-                player.setX(platform.getX() + platform.getWidth());
-            } else if (player.getRightBounds().intersects(platformBounds) && player.getVelocityX() > 0) {
-                player.setX(platform.getX() - player.getWidth());
+            pieceX[pieceCount] = player.getX();
+            pieceY[pieceCount] = player.getY();
+            pieceDx[pieceCount] = dx * time;
+            pieceDy[pieceCount] = dy * time;
+            pieceCount++;
+            if (hitId < 0) {
+                player.setX(player.getX() + dx);
+                player.setY(player.getY() + dy);
+                break;
+            }
+            player.setX(player.getX() + dx * time);
+            player.setY(player.getY() + dy * time);
+            if (normalY < 0) {
+                land(hitId, hitMinY);
+                dx *= 1 - time;
+                dy = 0;
+            } else if (normalY > 0) {
+                player.setY(hitMaxY);
+                player.setVelocityY(0);
+                dx *= 1 - time;
+                dy = 0;
+            } else if (canStepOnto(hitMinY)) {
+                land(hitId, hitMinY);
+                dx *= 1 - time;
+                dy = 0;
+            } else {
+                player.setX(normalX < 0 ? hitMinX - player.getWidth() : hitMaxX);
+                dx = 0;
+                dy *= 1 - time;
             }
         }
 
-        for (Hazard hazard : hazards) {
-            if (hazard.getType() == Hazard.HazardType.ICE) {
-                Rectangle iceRect = hazard.getBounds();
-                boolean closeToIceGround = player.getY() + player.getHeight() <= iceRect.y + GROUND_TOLERANCE &&
-                        player.getY() + player.getHeight() + player.getVelocityY() >= iceRect.y;
-
-                if (closeToIceGround &&
-                    player.getX() + player.getWidth() > iceRect.x &&
-                    player.getX() < iceRect.x + iceRect.width) {
-                    player.setY(iceRect.y - player.getHeight());
-                    player.setVelocityY(0);
-                    player.setOnGround(true);
+        player.applyGravity(tickSeconds / 2);
+
+        boolean onIce = false;
+        if (player.isOnGround()) {
+            float bottom = player.getY() + player.getHeight();
+            for (int c = 0; c < candidates; c++) {
+                int id = grid.result(c);
+                if (entities.isIce(id) && entities.visible[id] && spansEntity(id) &&
+                        Math.abs(bottom - entities.y[id]) <= GROUND_TOLERANCE) {
                     onIce = true;
                 }
             }
         }
 
         boolean hitHazard = false;
-        for (Hazard hazard : hazards) {
-            if (hazard.getType() == Hazard.HazardType.ICE) continue;
-            if (player.getBounds().intersects(hazard.getBounds())) {
-                player.setX(50);
-                player.setY(HEI-200);
+        for (int c = 0; c < candidates && !hitHazard; c++) {
+            int id = grid.result(c);
+            if (!entities.isLethal(id) || !entities.visible[id]) continue;
+            if (touchesHazard(entities.x[id], entities.y[id], entities.x[id] + entities.width[id], entities.y[id] + entities.height[id])) {
+                recordDeath(entities.getHazardType(id).name());
+                player.setX(respawnX);
+                player.setY(respawnY);
                 player.setVelocityX(0);
                 player.setVelocityY(0);
+                player.storePrevious();
                 hitHazard = true;
-                break;
             }
         }
 
-        if (player.getY() > HEI) {
-            player.setX(50);
-            player.setY(HEI-200);
+        if (player.getY() > height) {
+            recordDeath("FALL");
+            player.setX(respawnX);
+            player.setY(respawnY);
             player.setVelocityX(0);
             player.setVelocityY(0);
+            player.storePrevious();
             hitHazard = true;
         }
 
         if (hitHazard) {
-            for (Platform platform : platforms) {
-                if (platform instanceof DisappearingPlatform) {
-                    ((DisappearingPlatform) platform).reset();
-                }
-            }
+            entities.resetTimers(Entities.TIMER_ONCE);
         }
 
         if (onIce) {
-            float slideAccel = 0.5f;
-            float maxSlideSpeed = 8.0f;
-            float slideFriction = 0.985f;
+            float slideAccel = ICE_ACCELERATION * tickSeconds;
 
             if (player.getMovingLeft()) {
-                player.setVelocityX(Math.max(player.getVelocityX() - slideAccel, -maxSlideSpeed));
+                player.setVelocityX(Math.max(player.getVelocityX() - slideAccel, -ICE_MAX_SPEED));
             } else if (player.getMovingRight()) {
-                player.setVelocityX(Math.min(player.getVelocityX() + slideAccel, maxSlideSpeed));
+                player.setVelocityX(Math.min(player.getVelocityX() + slideAccel, ICE_MAX_SPEED));
             } else {
-                player.setVelocityX(player.getVelocityX() * slideFriction);
-                if (Math.abs(player.getVelocityX()) < 0.2f) {
+                player.setVelocityX(player.getVelocityX() * iceFriction);
+                if (Math.abs(player.getVelocityX()) < ICE_STOP_SPEED) {
                     player.setVelocityX(0);
                 }
             }
@@ -480,204 +440,131 @@ public class Level {
         }
     }
 
-    public void render(Graphics g) {
-        g.setColor(backgroundColor);
-        g.fillRect(0, 0, WID, HEI);
-
-        if (platformColor.equals(new Color(70, 120, 60))) {
-            Graphics2D g2d = (Graphics2D) g;
-
-            int islandW = 500;
-            int islandH = 90;
-            int islandX = 260;
-            int islandY = 220;
-
-            g2d.setColor(new Color(120, 100, 60, 230));
-            g2d.fillRoundRect(islandX, islandY, islandW, islandH, 80, 60);
-            g2d.setColor(new Color(70, 120, 60, 220));
-            g2d.fillRoundRect(islandX, islandY, islandW, 38, 80, 38);
-
-            g2d.setStroke(new BasicStroke(7f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-            g2d.setColor(new Color(60, 90, 40, 180));
-            for (int i = 0; i < 6; i++) {
-                int vx = islandX + 60 + i * 70;
-                int vy1 = islandY + islandH - 10;
-                int vy2 = vy1 + 60 + (i % 2) * 30;
-                int vy3 = vy2 + 30 + (i % 3) * 10;
-                g2d.drawLine(vx, vy1, vx - 10 + (i % 2) * 20, vy2);
-                g2d.drawLine(vx - 10 + (i % 2) * 20, vy2, vx + 5, vy3);
-            }
+    private boolean sweepPlayer(float dx, float dy, int minX, int minY, int maxX, int maxY) {
+        return sweep.test(player.getX(), player.getY(), player.getX() + player.getWidth(), player.getY() + player.getHeight(),
+                dx, dy, minX, minY, maxX, maxY);
+    }
 
-            g2d.setStroke(new BasicStroke(5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-            g2d.setColor(new Color(40, 90, 40, 180));
-            for (int i = 0; i < 6; i++) {
-                int vineX = 120 + i * 140;
-                int vineTop = 0;
-                int vineBot = HEI / 2 + (i % 2 == 0 ? 40 : 0);
-                int segments = 12;
-                int[] xs = new int[segments + 1];
-                int[] ys = new int[segments + 1];
-                for (int j = 0; j <= segments; j++) {
-                    xs[j] = vineX + (int)(Math.sin(j * 0.7 + i) * 12);
-                    ys[j] = vineTop + (vineBot - vineTop) * j / segments;
-                }
-                g2d.drawPolyline(xs, ys, segments + 1);
-
-                g2d.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                g2d.setColor(new Color(60, 160, 60, 180));
-                for (int j = 2; j < segments; j += 2) {
-                    int rungY = ys[j];
-                    int rungX1 = xs[j] - 10;
-                    int rungX2 = xs[j] + 10;
-                    g2d.drawLine(rungX1, rungY, rungX2, rungY);
-                }
-                g2d.setStroke(new BasicStroke(5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                g2d.setColor(new Color(40, 90, 40, 180));
+    private boolean resolveStart(int candidates, float dy) {
+        boolean supported = false;
+        for (int c = 0; c < candidates; c++) {
+            int id = grid.result(c);
+            if (entities.collider[id] != Entities.SOLID || !entities.visible[id] || !spansEntity(id)) {
+                continue;
             }
-
-            int pyramidBaseW = 420;
-            int pyramidBaseH = 160;
-            int pyramidX = islandX + (islandW - pyramidBaseW) / 2;
-            int pyramidY = islandY - pyramidBaseH + 38;
-            int levels = 7;
-            Color stone = new Color(220, 190, 120, 220);
-            Color moss = new Color(170, 160, 90, 90);
-
-            for (int l = levels - 1; l >= 0; l--) {
-                int stepW = pyramidBaseW - l * 60;
-                int stepH = pyramidBaseH / levels;
-                int stepX = pyramidX + l * 30;
-                int stepY = pyramidY + (levels - 1 - l) * stepH;
-                g2d.setColor(stone);
-                g2d.fillRect(stepX, stepY, stepW, stepH);
-                if (l % 2 == 0) {
-                    g2d.setColor(moss);
-                    g2d.fillRect(stepX, stepY, stepW, 8);
-                }
-                g2d.setColor(new Color(180, 150, 90, 90));
-                for (int cx = stepX; cx < stepX + stepW; cx += 32) {
-                    g2d.drawRect(cx, stepY, 32, stepH);
-                }
+            int platY = entities.y[id];
+            int platMaxY = platY + entities.height[id];
+            float top = player.getY();
+            float bottom = top + player.getHeight();
+            if (bottom < platY || top >= platMaxY) {
+                continue;
             }
-
-            int topW = 48, topH = 36;
-            int topX = pyramidX + pyramidBaseW / 2 - topW / 2;
-            int topY = pyramidY - topH + 18 + pyramidBaseH - (pyramidBaseH / levels);
-            g2d.setColor(stone.darker());
-            g2d.fillRect(topX, topY, topW, topH);
-
-            int orbX = topX + topW / 2 - 18;
-            int orbY = topY - 38;
-            for (int r = 32; r > 0; r -= 8) {
-                g2d.setColor(new Color(255, 240, 180, 30 + r * 2));
-                g2d.fillOval(orbX + 18 - r, orbY + 18 - r, r * 2, r * 2);
+            float up = bottom - platY;
+            if (up <= GROUND_TOLERANCE && dy >= 0) {
+                land(id, platY);
+                supported = true;
+                continue;
             }
-            g2d.setColor(new Color(255, 255, 200, 220));
-            g2d.fillOval(orbX + 8, orbY + 8, 20, 20);
-
-            g2d.setColor(new Color(180, 140, 80, 220));
-            int doorW = 36, doorH = 44;
-            int doorX = pyramidX + pyramidBaseW / 2 - doorW / 2;
-            int doorY = pyramidY + pyramidBaseH - (pyramidBaseH / levels) - 8;
-            g2d.fillRoundRect(doorX, doorY, doorW, doorH, 18, 18);
-            g2d.setColor(new Color(255, 230, 170, 180));
-            g2d.drawArc(doorX, doorY - 10, doorW, 20, 0, 180);
-
-            g2d.setColor(new Color(230, 210, 140, 180));
-            g2d.fillRect(pyramidX + 24, pyramidY + pyramidBaseH - 60, 12, 60);
-            g2d.fillRect(pyramidX + pyramidBaseW - 36, pyramidY + pyramidBaseH - 60, 12, 60);
-
-            g2d.setColor(new Color(210, 180, 120, 180));
-            for (int s = 0; s < 3; s++) {
-                int stepY = pyramidY - (s + 1) * 8;
-                int stepW = pyramidBaseW - s * 40;
-                int stepX = pyramidX + s * 20;
-                g2d.fillRect(stepX, stepY, stepW, 8);
+            if (up == 0) {
+                continue;
             }
-
-            g2d.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-            g2d.setColor(new Color(255, 255, 200, 120));
-            for (int i = -2; i <= 2; i++) {
-                g2d.drawLine(topX + topW / 2, orbY + 18, topX + topW / 2 + i * 30, orbY - 40);
+            float down = platMaxY - top;
+            float left = player.getX() + player.getWidth() - entities.x[id];
+            float right = entities.x[id] + entities.width[id] - player.getX();
+            float depth = Math.min(Math.min(up, down), Math.min(left, right));
+            if (depth == up) {
+                player.setY(platY - player.getHeight());
+            } else if (depth == down) {
+                player.setY(platMaxY);
+            } else if (depth == left) {
+                player.setX(entities.x[id] - player.getWidth());
+            } else {
+                player.setX(entities.x[id] + entities.width[id]);
             }
         }
-
-        if (platformColor.equals(new Color(180, 220, 255))) {
-            Graphics2D g2d = (Graphics2D) g;
-            int golemX = WID - 220;
-            int golemY = HEI - 180;
-            g2d.setColor(new Color(240, 250, 255, 230));
-            g2d.fillOval(golemX, golemY + 60, 80, 80);
-            g2d.fillOval(golemX + 10, golemY + 20, 60, 60);
-            g2d.fillOval(golemX + 22, golemY, 36, 36);
-
-            g2d.setColor(Color.BLACK);
-            g2d.fillOval(golemX + 32, golemY + 10, 6, 6);
-            g2d.fillOval(golemX + 42, golemY + 10, 6, 6);
-            for (int i = 0; i < 5; i++) {
-                g2d.fillOval(golemX + 30 + i * 5, golemY + 28, 4, 4);
+        if (supported || dy < 0) {
+            return supported;
+        }
+        float bottom = player.getY() + player.getHeight();
+        for (int c = 0; c < candidates; c++) {
+            int id = grid.result(c);
+            if (entities.collider[id] == Entities.FLOOR && entities.visible[id] && bottom >= entities.y[id] &&
+                    bottom <= entities.y[id] + GROUND_TOLERANCE && spansEntity(id)) {
+                land(id, entities.y[id]);
+                return true;
             }
-
-            g2d.setColor(new Color(255, 140, 40));
-            Polygon nose = new Polygon(
-                new int[]{golemX + 40, golemX + 54, golemX + 42},
-                new int[]{golemY + 18, golemY + 22, golemY + 22},
-                3
-            );
-            g2d.fillPolygon(nose);
-
-            g2d.setColor(new Color(120, 80, 40));
-            g2d.setStroke(new BasicStroke(4f));
-            g2d.drawLine(golemX + 18, golemY + 50, golemX - 20, golemY + 10);
-            g2d.drawLine(golemX + 62, golemY + 50, golemX + 110, golemY + 10);
-
-            g2d.setColor(Color.BLACK);
-            g2d.fillOval(golemX + 38, golemY + 45, 6, 6);
-            g2d.fillOval(golemX + 38, golemY + 65, 6, 6);
-            g2d.fillOval(golemX + 38, golemY + 85, 6, 6);
         }
+        return false;
+    }
 
-        if (platformColor.equals(new Color(200, 100, 50))) {
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setColor(new Color(180, 180, 80, 180));
-            int platformHeight = 20;
-            int platformLength = 800;
-            int gap = 120;
-            int y = HEI - 100;
-            boolean leftToRight = false;
-            for (int i = 0; i < 5; i++) {
-                int x = leftToRight ? 80 : WID - platformLength - 80;
-                int ladderX = leftToRight ? x + platformLength - 100 : x + 100;
-                int ladderYTop = y - gap + platformHeight;
-                int ladderYBot = y + platformHeight;
-                g2d.fillRect(ladderX, ladderYTop, 8, ladderYBot - ladderYTop);
-                g2d.fillRect(ladderX + 32, ladderYTop, 8, ladderYBot - ladderYTop);
-                for (int rung = 0; rung < 5; rung++) {
-                    int rungY = ladderYTop + 10 + rung * ((ladderYBot - ladderYTop - 20) / 4);
-                    g2d.fillRect(ladderX, rungY, 40, 4);
-                }
-                y -= gap;
-                leftToRight = !leftToRight;
-            }
+    private boolean canStepOnto(int surfaceY) {
+        float depth = player.getY() + player.getHeight() - surfaceY;
+        return depth > 0 && depth <= GROUND_TOLERANCE && player.getVelocityY() > STEP_UP_MIN_VELOCITY;
+    }
+
+    private void land(int id, int surfaceY) {
+        player.setY(surfaceY - player.getHeight());
+        player.setVelocityY(0);
+        player.setOnGround(true);
+        if ((entities.triggerActions(id) & Entities.TRIGGER_VANISH_ON_STAND) != 0) {
+            entities.hide(id);
         }
+    }
 
-        for (Platform platform : platforms) {
-            if (platform.getColor() == null) {
-                platform.setColor(platformColor);
+    private boolean touchesHazard(int boxMinX, int boxMinY, int boxMaxX, int boxMaxY) {
+        for (int i = 0; i < pieceCount; i++) {
+            float minX = pieceX[i];
+            float minY = pieceY[i];
+            if (minX + player.getWidth() > boxMinX && minX < boxMaxX && minY + player.getHeight() > boxMinY && minY < boxMaxY) {
+                return true;
+            }
+            if (sweep.test(minX, minY, minX + player.getWidth(), minY + player.getHeight(), pieceDx[i], pieceDy[i],
+                    boxMinX, boxMinY, boxMaxX, boxMaxY)) {
+                return true;
             }
-            platform.render(g);
         }
+        return Aabb.overlaps(player.getAabb(), boxMinX, boxMinY, boxMaxX, boxMaxY);
+    }
 
-        for (Hazard hazard : hazards) {
-            hazard.render(g);
-        }
+    private int queryCandidates(float dx, float dy) {
+        float lookAhead = dy > 0 ? player.getVelocityY() * LOOKAHEAD_SECONDS : 0;
+        return grid.query((int) Math.floor(player.getX() + Math.min(0, dx)) - QUERY_SLACK,
+                (int) Math.floor(player.getY() + Math.min(0, dy)) - QUERY_SLACK,
+                (int) Math.ceil(player.getX() + player.getWidth() + Math.max(0, dx)) + QUERY_SLACK,
+                (int) Math.ceil(player.getY() + player.getHeight() + Math.max(lookAhead, dy)) + GROUND_TOLERANCE + QUERY_SLACK);
+    }
 
-        if (goal != null) {
-            goal.render(g);
+    private void recordDeath(String cause) {
+        GameEvents.HazardDeath death = new GameEvents.HazardDeath();
+        if (death.shouldCommit()) {
+            death.level = name;
+            death.cause = cause;
+            death.x = player.getX();
+            death.y = player.getY();
+            death.commit();
         }
+    }
 
-        if (player != null) {
-            player.render(g);
+    public long stateHash() {
+        return entities.stateHash() * 2 + (levelCompleted ? 1 : 0);
+    }
+
+    public void writeState(DataOutput out) throws IOException {
+        out.writeBoolean(levelCompleted);
+        entities.writeState(out);
+    }
+
+    public void readState(DataInput in) throws IOException {
+        levelCompleted = in.readBoolean();
+        entities.readState(in, grid);
+    }
+
+    public void capture(WorldSnapshot snapshot) {
+        if (background == null || !background.isBaked(width, height)) {
+            prepareBackground(null);
         }
+        snapshot.captureBackground(background.getImage(), width, height);
+        snapshot.captureEntities(entities, tickRate);
+        snapshot.capturePlayer(player);
     }
 }
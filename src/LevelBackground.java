@@ -0,0 +1,236 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class LevelBackground {
+    private static final Stroke ROUND_7 = Palette.stroke(7f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke ROUND_5 = Palette.stroke(5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke ROUND_3 = Palette.stroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke SOLID_4 = Palette.stroke(4f);
+
+    private final int scenery;
+    private final int color;
+    private Image image;
+    private int width = -1;
+    private int height = -1;
+
+    public LevelBackground(int scenery, int color) {
+        this.scenery = scenery;
+        this.color = color;
+    }
+
+    public void bake(GraphicsConfiguration config, int width, int height) {
+        Image baked;
+        if (config != null) {
+            baked = config.createCompatibleImage(width, height, Transparency.OPAQUE);
+        } else {
+            baked = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g2d = (Graphics2D) baked.getGraphics();
+        try {
+            paint(g2d, width, height);
+        } finally {
+            g2d.dispose();
+        }
+        image = baked;
+        this.width = width;
+        this.height = height;
+    }
+
+    public boolean isBaked(int width, int height) {
+        return image != null && this.width == width && this.height == height;
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    private void paint(Graphics2D g2d, int width, int height) {
+        g2d.setColor(Palette.rgb(color));
+        g2d.fillRect(0, 0, width, height);
+
+        switch (scenery) {
+            case LevelFormat.SCENERY_JUNGLE_TEMPLE:
+                paintJungleTemple(g2d, width, height);
+                break;
+            case LevelFormat.SCENERY_SNOW_GOLEM:
+                paintSnowGolem(g2d, width, height);
+                break;
+            case LevelFormat.SCENERY_LADDERS:
+                paintLadders(g2d, width, height);
+                break;
+        }
+    }
+
+    private static void paintJungleTemple(Graphics2D g2d, int width, int height) {
+        int islandW = 500;
+        int islandH = 90;
+        int islandX = 260;
+        int islandY = 220;
+
+        g2d.setColor(Palette.color(120, 100, 60, 230));
+        g2d.fillRoundRect(islandX, islandY, islandW, islandH, 80, 60);
+        g2d.setColor(Palette.color(70, 120, 60, 220));
+        g2d.fillRoundRect(islandX, islandY, islandW, 38, 80, 38);
+
+        g2d.setStroke(ROUND_7);
+        g2d.setColor(Palette.color(60, 90, 40, 180));
+        for (int i = 0; i < 6; i++) {
+            int vx = islandX + 60 + i * 70;
+            int vy1 = islandY + islandH - 10;
+            int vy2 = vy1 + 60 + (i % 2) * 30;
+            int vy3 = vy2 + 30 + (i % 3) * 10;
+            g2d.drawLine(vx, vy1, vx - 10 + (i % 2) * 20, vy2);
+            g2d.drawLine(vx - 10 + (i % 2) * 20, vy2, vx + 5, vy3);
+        }
+
+        g2d.setStroke(ROUND_5);
+        g2d.setColor(Palette.color(40, 90, 40, 180));
+        for (int i = 0; i < 6; i++) {
+            int vineX = 120 + i * 140;
+            int vineTop = 0;
+            int vineBot = height / 2 + (i % 2 == 0 ? 40 : 0);
+            int segments = 12;
+            int[] xs = new int[segments + 1];
+            int[] ys = new int[segments + 1];
+            for (int j = 0; j <= segments; j++) {
+                xs[j] = vineX + (int)(Math.sin(j * 0.7 + i) * 12);
+                ys[j] = vineTop + (vineBot - vineTop) * j / segments;
+            }
+            g2d.drawPolyline(xs, ys, segments + 1);
+
+            g2d.setStroke(ROUND_3);
+            g2d.setColor(Palette.color(60, 160, 60, 180));
+            for (int j = 2; j < segments; j += 2) {
+                int rungY = ys[j];
+                int rungX1 = xs[j] - 10;
+                int rungX2 = xs[j] + 10;
+                g2d.drawLine(rungX1, rungY, rungX2, rungY);
+            }
+            g2d.setStroke(ROUND_5);
+            g2d.setColor(Palette.color(40, 90, 40, 180));
+        }
+
+        int pyramidBaseW = 420;
+        int pyramidBaseH = 160;
+        int pyramidX = islandX + (islandW - pyramidBaseW) / 2;
+        int pyramidY = islandY - pyramidBaseH + 38;
+        int levels = 7;
+        Color stone = Palette.color(220, 190, 120, 220);
+        Color moss = Palette.color(170, 160, 90, 90);
+
+        for (int l = levels - 1; l >= 0; l--) {
+            int stepW = pyramidBaseW - l * 60;
+            int stepH = pyramidBaseH / levels;
+            int stepX = pyramidX + l * 30;
+            int stepY = pyramidY + (levels - 1 - l) * stepH;
+            g2d.setColor(stone);
+            g2d.fillRect(stepX, stepY, stepW, stepH);
+            if (l % 2 == 0) {
+                g2d.setColor(moss);
+                g2d.fillRect(stepX, stepY, stepW, 8);
+            }
+            g2d.setColor(Palette.color(180, 150, 90, 90));
+            for (int cx = stepX; cx < stepX + stepW; cx += 32) {
+                g2d.drawRect(cx, stepY, 32, stepH);
+            }
+        }
+
+        int topW = 48, topH = 36;
+        int topX = pyramidX + pyramidBaseW / 2 - topW / 2;
+        int topY = pyramidY - topH + 18 + pyramidBaseH - (pyramidBaseH / levels);
+        g2d.setColor(stone.darker());
+        g2d.fillRect(topX, topY, topW, topH);
+
+        int orbX = topX + topW / 2 - 18;
+        int orbY = topY - 38;
+        for (int r = 32; r > 0; r -= 8) {
+            g2d.setColor(Palette.color(255, 240, 180, 30 + r * 2));
+            g2d.fillOval(orbX + 18 - r, orbY + 18 - r, r * 2, r * 2);
+        }
+        g2d.setColor(Palette.color(255, 255, 200, 220));
+        g2d.fillOval(orbX + 8, orbY + 8, 20, 20);
+
+        g2d.setColor(Palette.color(180, 140, 80, 220));
+        int doorW = 36, doorH = 44;
+        int doorX = pyramidX + pyramidBaseW / 2 - doorW / 2;
+        int doorY = pyramidY + pyramidBaseH - (pyramidBaseH / levels) - 8;
+        g2d.fillRoundRect(doorX, doorY, doorW, doorH, 18, 18);
+        g2d.setColor(Palette.color(255, 230, 170, 180));
+        g2d.drawArc(doorX, doorY - 10, doorW, 20, 0, 180);
+
+        g2d.setColor(Palette.color(230, 210, 140, 180));
+        g2d.fillRect(pyramidX + 24, pyramidY + pyramidBaseH - 60, 12, 60);
+        g2d.fillRect(pyramidX + pyramidBaseW - 36, pyramidY + pyramidBaseH - 60, 12, 60);
+
+        g2d.setColor(Palette.color(210, 180, 120, 180));
+        for (int s = 0; s < 3; s++) {
+            int stepY = pyramidY - (s + 1) * 8;
+            int stepW = pyramidBaseW - s * 40;
+            int stepX = pyramidX + s * 20;
+            g2d.fillRect(stepX, stepY, stepW, 8);
+        }
+
+        g2d.setStroke(ROUND_3);
+        g2d.setColor(Palette.color(255, 255, 200, 120));
+        for (int i = -2; i <= 2; i++) {
+            g2d.drawLine(topX + topW / 2, orbY + 18, topX + topW / 2 + i * 30, orbY - 40);
+        }
+    }
+
+    private static void paintSnowGolem(Graphics2D g2d, int width, int height) {
+        int golemX = width - 220;
+        int golemY = height - 180;
+        g2d.setColor(Palette.color(240, 250, 255, 230));
+        g2d.fillOval(golemX, golemY + 60, 80, 80);
+        g2d.fillOval(golemX + 10, golemY + 20, 60, 60);
+        g2d.fillOval(golemX + 22, golemY, 36, 36);
+
+        g2d.setColor(Color.BLACK);
+        g2d.fillOval(golemX + 32, golemY + 10, 6, 6);
+        g2d.fillOval(golemX + 42, golemY + 10, 6, 6);
+        for (int i = 0; i < 5; i++) {
+            g2d.fillOval(golemX + 30 + i * 5, golemY + 28, 4, 4);
+        }
+
+        g2d.setColor(Palette.color(255, 140, 40));
+        Polygon nose = new Polygon(
+            new int[]{golemX + 40, golemX + 54, golemX + 42},
+            new int[]{golemY + 18, golemY + 22, golemY + 22},
+            3
+        );
+        g2d.fillPolygon(nose);
+
+        g2d.setColor(Palette.color(120, 80, 40));
+        g2d.setStroke(SOLID_4);
+        g2d.drawLine(golemX + 18, golemY + 50, golemX - 20, golemY + 10);
+        g2d.drawLine(golemX + 62, golemY + 50, golemX + 110, golemY + 10);
+
+        g2d.setColor(Color.BLACK);
+        g2d.fillOval(golemX + 38, golemY + 45, 6, 6);
+        g2d.fillOval(golemX + 38, golemY + 65, 6, 6);
+        g2d.fillOval(golemX + 38, golemY + 85, 6, 6);
+    }
+
+    private static void paintLadders(Graphics2D g2d, int width, int height) {
+        g2d.setColor(Palette.color(180, 180, 80, 180));
+        int platformHeight = 20;
+        int platformLength = 800;
+        int gap = 120;
+        int y = height - 100;
+        boolean leftToRight = false;
+        for (int i = 0; i < 5; i++) {
+            int x = leftToRight ? 80 : width - platformLength - 80;
+            int ladderX = leftToRight ? x + platformLength - 100 : x + 100;
+            int ladderYTop = y - gap + platformHeight;
+            int ladderYBot = y + platformHeight;
+            g2d.fillRect(ladderX, ladderYTop, 8, ladderYBot - ladderYTop);
+            g2d.fillRect(ladderX + 32, ladderYTop, 8, ladderYBot - ladderYTop);
+            for (int rung = 0; rung < 5; rung++) {
+                int rungY = ladderYTop + 10 + rung * ((ladderYBot - ladderYTop - 20) / 4);
+                g2d.fillRect(ladderX, rungY, 40, 4);
+            }
+            y -= gap;
+            leftToRight = !leftToRight;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LevelDirectory implements LevelSource {
+    private final List<Path> files;
+    private final String[] names;
+
+    public LevelDirectory(Path directory) throws IOException {
+        List<String> stems = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String stem = stem(file.getFileName().toString());
+                if (stem != null && !stems.contains(stem)) {
+                    stems.add(stem);
+                }
+            }
+        }
+        Collections.sort(stems);
+        files = new ArrayList<>(stems.size());
+        for (String stem : stems) {
+            Path binary = directory.resolve(stem + LevelFormat.BINARY_EXTENSION);
+            Path text = directory.resolve(stem + LevelFormat.TEXT_EXTENSION);
+            if (Files.exists(binary) && (!Files.exists(text) ||
+                    Files.getLastModifiedTime(binary).compareTo(Files.getLastModifiedTime(text)) >= 0)) {
+                files.add(binary);
+            } else {
+                files.add(text);
+            }
+        }
+        names = new String[files.size()];
+    }
+
+    private static String stem(String file) {
+        if (file.endsWith(LevelFormat.BINARY_EXTENSION)) {
+            return file.substring(0, file.length() - LevelFormat.BINARY_EXTENSION.length());
+        } else if (file.endsWith(LevelFormat.TEXT_EXTENSION)) {
+            return file.substring(0, file.length() - LevelFormat.TEXT_EXTENSION.length());
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return files.size();
+    }
+
+    @Override
+    public String getName(int index) {
+        if (names[index] == null) {
+            names[index] = LevelFormat.readName(read(index));
+        }
+        return names[index];
+    }
+
+    @Override
+    public void load(int index, Level level) {
+        LevelFormat.read(read(index), level);
+    }
+
+    private ByteBuffer read(int index) {
+        return ByteBuffer.wrap(bytes(index));
+    }
+
+    byte[] bytes(int index) {
+        Path file = files.get(index);
+        try {
+            if (file.toString().endsWith(LevelFormat.TEXT_EXTENSION)) {
+                return LevelFormat.compile(file);
+            }
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read level " + file, e);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class LevelFormat {
+    public static final int MAGIC = 0x56564C56;
+    public static final int VERSION = 1;
+    public static final String TEXT_EXTENSION = ".lvl";
+    public static final String BINARY_EXTENSION = ".lvb";
+
+    public static final byte SCENERY_NONE = 0;
+    public static final byte SCENERY_JUNGLE_TEMPLE = 1;
+    public static final byte SCENERY_SNOW_GOLEM = 2;
+    public static final byte SCENERY_LADDERS = 3;
+    private static final String[] SCENERY_NAMES = {"none", "jungle-temple", "snow-golem", "ladders"};
+
+    private static final int DEFAULT_BACKGROUND = 0x191932;
+    private static final int DEFAULT_PLATFORM_COLOR = 0x00FF00;
+    private static final int DEFAULT_SPAWN_X = 50;
+    private static final int DEFAULT_SPAWN_Y = 300;
+    private static final float FILE_TICK_SECONDS = 1f / TickRate.REFERENCE_HZ;
+    private static final byte PLATFORM_STATIC = 0;
+    private static final byte PLATFORM_MOVING = 1;
+    private static final byte PLATFORM_DISAPPEARING = 2;
+    private static final byte PLATFORM_CASCADING = 3;
+
+    private LevelFormat() {
+    }
+
+    public static byte[] compile(String text, String origin) {
+        try {
+            return new Compiler(origin).compile(new BufferedReader(new StringReader(text)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static byte[] compile(Path file) throws IOException {
+        return compile(Files.readString(file, StandardCharsets.UTF_8), file.toString());
+    }
+
+    public static String readName(ByteBuffer data) {
+        ByteBuffer buf = data.duplicate();
+        readHeader(buf);
+        return readString(buf);
+    }
+
+    public static void read(ByteBuffer data, Level level) {
+        ByteBuffer buf = data.duplicate();
+        readHeader(buf);
+        level.setName(readString(buf));
+        level.setBackgroundColor(buf.getInt());
+        level.setPlatformColor(buf.getInt());
+        level.setScenery(buf.get());
+        level.setSpawn(buf.getInt(), buf.getInt());
+        level.setRespawn(buf.getInt(), buf.getInt());
+
+        int platformCount = buf.getInt();
+        for (int i = 0; i < platformCount; i++) {
+            byte kind = buf.get();
+            int x = buf.getInt();
+            int y = buf.getInt();
+            int width = buf.getInt();
+            int height = buf.getInt();
+            int color = buf.getInt();
+            switch (kind) {
+                case PLATFORM_STATIC:
+                    level.addStaticPlatform(x, y, width, height, color);
+                    break;
+                case PLATFORM_MOVING:
+                    level.addMovingPlatform(x, y, width, height, color, buf.getFloat(), buf.getFloat(), buf.getFloat() / FILE_TICK_SECONDS, buf.get() != 0);
+                    break;
+                case PLATFORM_DISAPPEARING:
+                    level.addDisappearingPlatform(x, y, width, height, color, buf.getInt() * FILE_TICK_SECONDS);
+                    break;
+                case PLATFORM_CASCADING:
+                    level.addCascadingPlatform(x, y, width, height, color, buf.getInt() * FILE_TICK_SECONDS, buf.get() != 0);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown platform kind " + kind);
+            }
+        }
+
+        Hazard.HazardType[] types = Hazard.HazardType.values();
+        int hazardCount = buf.getInt();
+        for (int i = 0; i < hazardCount; i++) {
+            byte type = buf.get();
+            if (type < 0 || type >= types.length) {
+                throw new IllegalArgumentException("Unknown hazard type " + type);
+            }
+            level.addHazard(buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), types[type]);
+        }
+
+        if (buf.get() != 0) {
+            level.addGoal(buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt());
+        }
+    }
+
+    private static void readHeader(ByteBuffer buf) {
+        int magic = buf.getInt();
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled level: bad magic 0x" + Integer.toHexString(magic));
+        }
+        int version = buf.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported level version " + version);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Compiler {
+        private final String origin;
+        private final ByteArrayOutputStream platformBytes = new ByteArrayOutputStream();
+        private final DataOutputStream platforms = new DataOutputStream(platformBytes);
+        private final ByteArrayOutputStream hazardBytes = new ByteArrayOutputStream();
+        private final DataOutputStream hazards = new DataOutputStream(hazardBytes);
+        private String name = "";
+        private int background = DEFAULT_BACKGROUND;
+        private int platformColor = DEFAULT_PLATFORM_COLOR;
+        private byte scenery = SCENERY_NONE;
+        private int spawnX = DEFAULT_SPAWN_X;
+        private int spawnY = DEFAULT_SPAWN_Y;
+        private int respawnX = Integer.MIN_VALUE;
+        private int respawnY = Integer.MIN_VALUE;
+        private int platformCount = 0;
+        private int hazardCount = 0;
+        private int[] goal;
+        private int lineNumber = 0;
+        private boolean hasTop = false;
+
+        Compiler(String origin) {
+            this.origin = origin;
+        }
+
+        byte[] compile(BufferedReader reader) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("//")) {
+                    continue;
+                }
+                parseLine(line);
+            }
+            if (respawnX == Integer.MIN_VALUE) {
+                respawnX = spawnX;
+                respawnY = spawnY;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + platformBytes.size() + hazardBytes.size());
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(nameBytes.length);
+            out.write(nameBytes);
+            out.writeInt(background);
+            out.writeInt(platformColor);
+            out.writeByte(scenery);
+            out.writeInt(spawnX);
+            out.writeInt(spawnY);
+            out.writeInt(respawnX);
+            out.writeInt(respawnY);
+            out.writeInt(platformCount);
+            platformBytes.writeTo(out);
+            out.writeInt(hazardCount);
+            hazardBytes.writeTo(out);
+            if (goal != null) {
+                out.writeByte(1);
+                for (int v : goal) {
+                    out.writeInt(v);
+                }
+            } else {
+                out.writeByte(0);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private void parseLine(String line) throws IOException {
+            int space = line.indexOf(' ');
+            String keyword = space < 0 ? line : line.substring(0, space);
+            if (keyword.equals("name")) {
+                name = unquote(space < 0 ? "" : line.substring(space + 1).trim());
+                if (name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+                    throw error("name is too long");
+                }
+                return;
+            }
+            String[] args = space < 0 ? new String[0] : line.substring(space + 1).trim().split("\\s+");
+            switch (keyword) {
+                case "background":
+                    expect(args, 1, 1);
+                    background = color(args[0]);
+                    break;
+                case "platform-color":
+                    expect(args, 1, 1);
+                    platformColor = color(args[0]);
+                    break;
+                case "scenery":
+                    expect(args, 1, 1);
+                    scenery = scenery(args[0]);
+                    break;
+                case "spawn":
+                    expect(args, 2, 2);
+                    spawnX = integer(args[0]);
+                    spawnY = integer(args[1]);
+                    break;
+                case "respawn":
+                    expect(args, 2, 2);
+                    respawnX = integer(args[0]);
+                    respawnY = integer(args[1]);
+                    break;
+                case "platform":
+                    expect(args, 4, 5);
+                    writePlatform(PLATFORM_STATIC, args, 4);
+                    break;
+                case "moving":
+                    expect(args, 8, 9);
+                    writePlatform(PLATFORM_MOVING, args, 8);
+                    platforms.writeFloat(decimal(args[4]));
+                    platforms.writeFloat(decimal(args[5]));
+                    platforms.writeFloat(decimal(args[6]));
+                    platforms.writeByte(direction(args[7]) ? 1 : 0);
+                    break;
+                case "disappearing":
+                    expect(args, 5, 6);
+                    writePlatform(PLATFORM_DISAPPEARING, args, 5);
+                    platforms.writeInt(integer(args[4]));
+                    break;
+                case "cascading": {
+                    boolean top = args.length > 5 && args[5].equals("top");
+                    expect(args, 5, top ? 7 : 6);
+                    if (top && hasTop) {
+                        throw error("only one cascading platform can be marked top");
+                    }
+                    hasTop |= top;
+                    writePlatform(PLATFORM_CASCADING, args, top ? 6 : 5);
+                    platforms.writeInt(integer(args[4]));
+                    platforms.writeByte(top ? 1 : 0);
+                    break;
+                }
+                case "hazard":
+                    expect(args, 5, 5);
+                    hazards.writeByte(hazardType(args[0]).ordinal());
+                    for (int i = 1; i < 5; i++) {
+                        hazards.writeInt(integer(args[i]));
+                    }
+                    hazardCount++;
+                    break;
+                case "goal":
+                    expect(args, 4, 4);
+                    if (goal != null) {
+                        throw error("duplicate goal");
+                    }
+                    goal = new int[]{integer(args[0]), integer(args[1]), integer(args[2]), integer(args[3])};
+                    break;
+                default:
+                    throw error("unknown directive '" + keyword + "'");
+            }
+        }
+
+        private void writePlatform(byte kind, String[] args, int colorIndex) throws IOException {
+            platforms.writeByte(kind);
+            for (int i = 0; i < 4; i++) {
+                platforms.writeInt(integer(args[i]));
+            }
+            platforms.writeInt(args.length > colorIndex ? color(args[colorIndex]) : -1);
+            platformCount++;
+        }
+
+        private void expect(String[] args, int min, int max) {
+            if (args.length < min || args.length > max) {
+                throw error("expected " + (min == max ? Integer.toString(min) : min + "-" + max) +
+                        " arguments but found " + args.length);
+            }
+        }
+
+        private int integer(String s) {
+            try {
+                return Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                throw error("not an integer: '" + s + "'");
+            }
+        }
+
+        private float decimal(String s) {
+            try {
+                return Float.parseFloat(s);
+            } catch (NumberFormatException e) {
+                throw error("not a number: '" + s + "'");
+            }
+        }
+
+        private int color(String s) {
+            if (!s.startsWith("#") || s.length() != 7) {
+                throw error("colors are written #RRGGBB: '" + s + "'");
+            }
+            try {
+                return Integer.parseInt(s.substring(1), 16);
+            } catch (NumberFormatException e) {
+                throw error("not a color: '" + s + "'");
+            }
+        }
+
+        private boolean direction(String s) {
+            if (s.equals("horizontal")) {
+                return true;
+            } else if (s.equals("vertical")) {
+                return false;
+            }
+            throw error("expected horizontal or vertical: '" + s + "'");
+        }
+
+        private byte scenery(String s) {
+            for (int i = 0; i < SCENERY_NAMES.length; i++) {
+                if (SCENERY_NAMES[i].equals(s)) {
+                    return (byte) i;
+                }
+            }
+            throw error("unknown scenery '" + s + "'");
+        }
+
+        private Hazard.HazardType hazardType(String s) {
+            for (Hazard.HazardType type : Hazard.HazardType.values()) {
+                if (type.name().equalsIgnoreCase(s)) {
+                    return type;
+                }
+            }
+            throw error("unknown hazard type '" + s + "'");
+        }
+
+        private String unquote(String s) {
+            if (s.length() >= 2 && s.startsWith("\"") && s.endsWith("\"")) {
+                return s.substring(1, s.length() - 1);
+            }
+            return s;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(origin + ":" + lineNumber + ": " + message);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java LevelFormat <level.lvl>...");
+            return;
+        }
+        for (String arg : args) {
+            Path source = Path.of(arg);
+            String file = source.getFileName().toString();
+            String stem = file.endsWith(TEXT_EXTENSION) ? file.substring(0, file.length() - TEXT_EXTENSION.length()) : file;
+            Path target = source.resolveSibling(stem + BINARY_EXTENSION);
+            byte[] compiled = compile(source);
+            Files.write(target, compiled);
+            System.out.println(source + " -> " + target + " (" + compiled.length + " bytes)");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LevelPack implements LevelSource {
+    public static final int MAGIC = 0x5656504B;
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".pack";
+    private static final int HEADER_BYTES = 10;
+    private static final int ENTRY_BYTES = 8;
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final int count;
+    private final String[] names;
+
+    private LevelPack(Path file, MappedByteBuffer data) {
+        this.file = file;
+        this.data = data;
+        int magic = data.getInt(0);
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException(file + ": not a level pack (bad magic 0x" + Integer.toHexString(magic) + ")");
+        }
+        int version = data.getShort(4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException(file + ": unsupported level pack version " + version);
+        }
+        count = data.getInt(6);
+        if (count < 0 || HEADER_BYTES + (long) count * ENTRY_BYTES > data.capacity()) {
+            throw new IllegalArgumentException(file + ": truncated level index");
+        }
+        for (int i = 0; i < count; i++) {
+            long end = (long) offset(i) + length(i);
+            if (offset(i) < HEADER_BYTES || length(i) < 0 || end > data.capacity()) {
+                throw new IllegalArgumentException(file + ": level " + i + " lies outside the pack");
+            }
+        }
+        names = new String[count];
+    }
+
+    public static LevelPack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + ": level packs are limited to 2 GB");
+            }
+            return new LevelPack(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public static void write(Path target, List<byte[]> levels) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(target)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(levels.size());
+            long offset = HEADER_BYTES + (long) levels.size() * ENTRY_BYTES;
+            for (byte[] level : levels) {
+                if (offset + level.length > Integer.MAX_VALUE) {
+                    throw new IOException(target + ": level packs are limited to 2 GB");
+                }
+                out.writeInt((int) offset);
+                out.writeInt(level.length);
+                offset += level.length;
+            }
+            for (byte[] level : levels) {
+                out.write(level);
+            }
+            out.flush();
+        }
+    }
+
+    private int offset(int index) {
+        return data.getInt(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    private int length(int index) {
+        return data.getInt(HEADER_BYTES + index * ENTRY_BYTES + 4);
+    }
+
+    private ByteBuffer level(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Level " + index + " not in " + file + " (" + count + " levels)");
+        }
+        return data.slice(offset(index), length(index));
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public String getName(int index) {
+        String name = names[index];
+        if (name == null) {
+            name = LevelFormat.readName(level(index));
+            names[index] = name;
+        }
+        return name;
+    }
+
+    @Override
+    public void load(int index, Level level) {
+        LevelFormat.read(level(index), level);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java LevelPack <out.pack> <level directory | level file>...");
+            return;
+        }
+        List<byte[]> levels = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            Path source = Path.of(args[i]);
+            if (Files.isDirectory(source)) {
+                LevelDirectory directory = new LevelDirectory(source);
+                for (int l = 0; l < directory.size(); l++) {
+                    levels.add(directory.bytes(l));
+                }
+            } else if (source.toString().endsWith(LevelFormat.TEXT_EXTENSION)) {
+                levels.add(LevelFormat.compile(source));
+            } else {
+                levels.add(Files.readAllBytes(source));
+            }
+        }
+        Path target = Path.of(args[0]);
+        write(target, levels);
+        System.out.println(target + ": " + levels.size() + " levels, " + Files.size(target) + " bytes");
+    }
+}
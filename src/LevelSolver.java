@@ -0,0 +1,306 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class LevelSolver {
+    private static final int[] MOVES = { 0, Simulation.INPUT_RIGHT, Simulation.INPUT_LEFT };
+    private static final float POSITION_QUANTUM = 0.25f;
+    private static final float VELOCITY_QUANTUM = 2f / TickRate.REFERENCE_HZ;
+    private static final int STATES_PER_TASK = 256;
+    private static final int DEFAULT_MAX_TICKS = 3600;
+    private static final int DEFAULT_MAX_STATES = 3000000;
+    private static final int DEFAULT_TICKS_PER_DECISION = 8;
+
+    private final LevelSource levels;
+    private final int ticksPerDecision;
+    private final ForkJoinPool pool;
+
+    public LevelSolver(LevelSource levels, int ticksPerDecision, int parallelism) {
+        this.levels = levels;
+        this.ticksPerDecision = ticksPerDecision;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public static final class Solution {
+        private final int levelIndex;
+        private final int[] inputs;
+        private final long completedTicks;
+        private final long statesExplored;
+        private final boolean exhausted;
+
+        private Solution(int levelIndex, int[] inputs, long completedTicks, long statesExplored, boolean exhausted) {
+            this.levelIndex = levelIndex;
+            this.inputs = inputs;
+            this.completedTicks = completedTicks;
+            this.statesExplored = statesExplored;
+            this.exhausted = exhausted;
+        }
+
+        public int getLevelIndex() { return levelIndex; }
+        public boolean isSolved() { return inputs != null; }
+        public int getTicks() { return inputs != null ? inputs.length : -1; }
+        public long getCompletedTicks() { return completedTicks; }
+        public int[] getInputs() { return inputs; }
+        public long getStatesExplored() { return statesExplored; }
+        public boolean isExhausted() { return exhausted; }
+    }
+
+    private static final class Layer {
+        final byte[][] states;
+        final int[] parents;
+        final byte[] inputs;
+        final int size;
+
+        Layer(byte[][] states, int[] parents, byte[] inputs, int size) {
+            this.states = states;
+            this.parents = parents;
+            this.inputs = inputs;
+            this.size = size;
+        }
+    }
+
+    private static final class Expansion {
+        final List<byte[]> states = new ArrayList<>();
+        int[] parents = new int[64];
+        byte[] inputs = new byte[64];
+        int goalParent = -1;
+        int goalInput;
+        int goalTicks;
+        long goalLevelTicks;
+
+        void add(byte[] state, int parent, int input) {
+            int n = states.size();
+            if (n == parents.length) {
+                parents = Arrays.copyOf(parents, n * 2);
+                inputs = Arrays.copyOf(inputs, n * 2);
+            }
+            states.add(state);
+            parents[n] = parent;
+            inputs[n] = (byte) input;
+        }
+    }
+
+    private static final class SingleLevel implements LevelSource {
+        private final Level level;
+
+        SingleLevel(Level level) {
+            this.level = level;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public String getName(int index) {
+            return level.getName();
+        }
+
+        @Override
+        public void load(int index, Level target) {
+            target.copyFrom(level);
+        }
+    }
+
+    public Solution solve(int levelIndex, int maxTicks, int maxStates) {
+        Level level = new Level(VaultVault.WIDTH, VaultVault.HEIGHT, TickRate.getDefault());
+        levels.load(levelIndex, level);
+        return solve(level, levelIndex, maxTicks, maxStates);
+    }
+
+    public Solution solve(Level level, int maxTicks, int maxStates) {
+        return solve(level, -1, maxTicks, maxStates);
+    }
+
+    private Solution solve(Level level, int levelIndex, int maxTicks, int maxStates) {
+        Level snapshot = new Level(level.getWidth(), level.getHeight(), level.getTickRate());
+        snapshot.copyFrom(level);
+        LevelSource source = new SingleLevel(snapshot);
+        Simulation start = new Simulation(source, snapshot.getWidth(), snapshot.getHeight(), snapshot.getTickRate());
+        start.startLevel(0);
+        ThreadLocal<Simulation> workers = ThreadLocal.withInitial(() -> {
+            Simulation simulation = new Simulation(source, snapshot.getWidth(), snapshot.getHeight(), snapshot.getTickRate());
+            simulation.startLevel(0);
+            return simulation;
+        });
+        Set<Long> visited = ConcurrentHashMap.newKeySet();
+        visited.add(key(start));
+        List<Layer> layers = new ArrayList<>();
+        layers.add(new Layer(new byte[][] { start.saveState() }, new int[] { -1 }, new byte[] { 0 }, 1));
+
+        for (int depth = 0; depth * ticksPerDecision < maxTicks; depth++) {
+            Layer frontier = layers.get(layers.size() - 1);
+            Expansion next = pool.invoke(new Expand(frontier, 0, frontier.size, workers, visited));
+            if (next.goalParent >= 0) {
+                int[] inputs = new int[depth * ticksPerDecision + next.goalTicks];
+                Arrays.fill(inputs, depth * ticksPerDecision, inputs.length, next.goalInput);
+                int index = next.goalParent;
+                for (int d = depth - 1; d >= 0; d--) {
+                    Layer layer = layers.get(d + 1);
+                    Arrays.fill(inputs, d * ticksPerDecision, (d + 1) * ticksPerDecision, layer.inputs[index]);
+                    index = layer.parents[index];
+                }
+                return new Solution(levelIndex, inputs, next.goalLevelTicks, visited.size(), false);
+            }
+            if (next.states.isEmpty()) {
+                return new Solution(levelIndex, null, -1, visited.size(), true);
+            }
+            if (visited.size() > maxStates) {
+                return new Solution(levelIndex, null, -1, visited.size(), false);
+            }
+            layers.set(layers.size() - 1, new Layer(null, frontier.parents, frontier.inputs, frontier.size));
+            layers.add(new Layer(next.states.toArray(new byte[0][]), next.parents, next.inputs, next.states.size()));
+        }
+        return new Solution(levelIndex, null, -1, visited.size(), false);
+    }
+
+    private static long key(Simulation simulation) {
+        Player player = simulation.getPlayer();
+        long hash = Math.round(player.getX() * POSITION_QUANTUM);
+        hash = hash * 1031 + Math.round(player.getY() * POSITION_QUANTUM);
+        hash = hash * 257 + Math.round(player.getVelocityY() * VELOCITY_QUANTUM);
+        hash = hash * 2 + (player.isOnGround() ? 1 : 0);
+        hash = hash * 0x9E3779B97F4A7C15L + simulation.getLevel().stateHash();
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private final class Expand extends RecursiveTask<Expansion> {
+        private final Layer frontier;
+        private final int from;
+        private final int to;
+        private final ThreadLocal<Simulation> workers;
+        private final Set<Long> visited;
+
+        Expand(Layer frontier, int from, int to, ThreadLocal<Simulation> workers, Set<Long> visited) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.workers = workers;
+            this.visited = visited;
+        }
+
+        @Override
+        protected Expansion compute() {
+            if (to - from > STATES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                Expand left = new Expand(frontier, from, middle, workers, visited);
+                left.fork();
+                Expansion right = new Expand(frontier, middle, to, workers, visited).compute();
+                return merge(left.join(), right);
+            }
+            Expansion expansion = new Expansion();
+            Simulation simulation = workers.get();
+            for (int i = from; i < to; i++) {
+                byte[] state = frontier.states[i];
+                simulation.restoreState(state);
+                int jumps = simulation.getPlayer().isOnGround() ? 2 : 1;
+                for (int jump = 0; jump < jumps; jump++) {
+                    for (int move : MOVES) {
+                        int input = move | (jump == 1 ? Simulation.INPUT_JUMP : 0);
+                        simulation.restoreState(state);
+                        int ticks = 0;
+                        while (ticks < ticksPerDecision && simulation.getPhase() == Simulation.Phase.PLAYING) {
+                            simulation.advance(input);
+                            ticks++;
+                        }
+                        if (simulation.getPhase() == Simulation.Phase.LEVEL_COMPLETE) {
+                            if (expansion.goalParent < 0) {
+                                expansion.goalParent = i;
+                                expansion.goalInput = input;
+                                expansion.goalTicks = ticks;
+                                expansion.goalLevelTicks = simulation.getLevelTicks();
+                            }
+                        } else if (visited.add(key(simulation))) {
+                            expansion.add(simulation.saveState(), i, input);
+                        }
+                    }
+                }
+            }
+            return expansion;
+        }
+
+        private static Expansion merge(Expansion a, Expansion b) {
+            for (int i = 0; i < b.states.size(); i++) {
+                a.add(b.states.get(i), b.parents[i], b.inputs[i]);
+            }
+            if (a.goalParent < 0 && b.goalParent >= 0) {
+                a.goalParent = b.goalParent;
+                a.goalInput = b.goalInput;
+                a.goalTicks = b.goalTicks;
+                a.goalLevelTicks = b.goalLevelTicks;
+            }
+            return a;
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java LevelSolver <level index | all> [maxTicks=" + DEFAULT_MAX_TICKS + "] [maxStates=" +
+                    DEFAULT_MAX_STATES + "] [ticksPerDecision=" + DEFAULT_TICKS_PER_DECISION + "] [threads] [replay directory]");
+            System.out.println("Inputs are held for ticksPerDecision ticks and positions are quantized, so results are bounded:");
+            System.out.println("a solution is the fastest found at that granularity, and a failure does not prove a level unsolvable.");
+            System.out.println("The defaults solve every shipped level when run with -Xmx3g; finer holds need more states.");
+            return;
+        }
+        LevelSource levels = LevelSource.openDefault();
+        int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_TICKS;
+        int maxStates = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_STATES;
+        int ticksPerDecision = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_TICKS_PER_DECISION;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Path replays = args.length > 5 ? Path.of(args[5]) : null;
+        int first = args[0].equals("all") ? 0 : Integer.parseInt(args[0]);
+        int last = args[0].equals("all") ? levels.size() - 1 : first;
+
+        LevelSolver solver = new LevelSolver(levels, ticksPerDecision, threads);
+        Level level = new Level(VaultVault.WIDTH, VaultVault.HEIGHT, TickRate.getDefault());
+        boolean allSolved = true;
+        for (int l = first; l <= last; l++) {
+            level.reset();
+            levels.load(l, level);
+            long start = System.nanoTime();
+            Solution solution = solver.solve(level, maxTicks, maxStates);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            String name = level.getName();
+            if (solution.isSolved()) {
+                System.out.printf("Level %d (%s): completed in %d ticks (%.2fs) with %d-tick input holds, %d states explored in %.2fs%n",
+                        l, name, solution.getCompletedTicks(), TickRate.getDefault().seconds(solution.getCompletedTicks()),
+                        ticksPerDecision, solution.getStatesExplored(), seconds);
+                if (replays != null) {
+                    Files.createDirectories(replays);
+                    Simulation simulation = new Simulation(levels);
+                    simulation.setReplayDirectory(replays);
+                    simulation.startLevel(l);
+                    for (int input : solution.getInputs()) {
+                        simulation.advance(input);
+                    }
+                    simulation.stopRecording();
+                }
+            } else {
+                allSolved = false;
+                System.out.printf("Level %d (%s): no solution found with %d-tick input holds, %s after %d states in %.2fs%n",
+                        l, name, ticksPerDecision,
+                        solution.isExhausted() ? "every quantized state explored" : "search limits (maxTicks=" + maxTicks + ", maxStates=" + maxStates + ") reached",
+                        solution.getStatesExplored(), seconds);
+            }
+        }
+        solver.shutdown();
+        ReplayWriter.awaitPending();
+        if (!allSolved) {
+            System.exit(1);
+        }
+    }
+}
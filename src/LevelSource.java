@@ -0,0 +1,40 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public interface LevelSource {
+    String LEVELS_PROPERTY = "vaultvault.levels";
+    String DEFAULT_PACK = "levels" + LevelPack.EXTENSION;
+    String DEFAULT_DIRECTORY = "levels";
+
+    int size();
+
+    String getName(int index);
+
+    void load(int index, Level level);
+
+    static LevelSource open(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            return new LevelDirectory(path);
+        }
+        return LevelPack.open(path);
+    }
+
+    static LevelSource openDefault() {
+        String configured = System.getProperty(LEVELS_PROPERTY);
+        Path path;
+        if (configured != null) {
+            path = Path.of(configured);
+        } else if (Files.isRegularFile(Path.of(DEFAULT_PACK))) {
+            path = Path.of(DEFAULT_PACK);
+        } else {
+            path = Path.of(DEFAULT_DIRECTORY);
+        }
+        try {
+            return open(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read levels from " + path.toAbsolutePath(), e);
+        }
+    }
+}
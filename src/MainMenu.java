@@ -1,6 +1,8 @@
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.Random;
 
 public class MainMenu {
@@ -9,9 +11,12 @@ public class MainMenu {
     private MenuState menuState = MenuState.MAIN;
     private int selectedMenuItem = 0;
     private int selectedLevel = 0;
-    private final Font titleFont = new Font("Segoe UI", Font.BOLD, 54);
-    private final Font menuFont = new Font("Segoe UI", Font.BOLD, 28);
-    private final Font glowFont = new Font("Segoe UI", Font.BOLD, 32);
+    private final Font titleFont = Palette.font("Segoe UI", Font.BOLD, 54);
+    private final Font menuFont = Palette.font("Segoe UI", Font.BOLD, 28);
+    private final Font glowFont = Palette.font("Segoe UI", Font.BOLD, 32);
+    private final Font levelTitleFont = Palette.font("Segoe UI", Font.BOLD, 40);
+    private final Font checkFont = Palette.font("Segoe UI", Font.BOLD, 36);
+    private final Font hintFont = Palette.font("Segoe UI", Font.PLAIN, 18);
     private static final int WID = VaultVault.WIDTH;
     private static final int HEI = VaultVault.HEIGHT;
     private static final int CIRCLE_COUNT = 12;
@@ -21,6 +26,49 @@ public class MainMenu {
     private final float[] circleSpeed = new float[CIRCLE_COUNT];
     private final Color[] circleColors = new Color[CIRCLE_COUNT];
     private final Random rand = new Random();
+    private final Image[] circleSprites = new Image[CIRCLE_COUNT];
+    private static final int MENU_ITEM_COUNT = 3;
+    private static final int[] MENU_Y_POSITIONS = {260, 330, 400};
+    private static final int[] MENU_BOX_WIDTHS = {220, 320, 180};
+    private static final int MENU_BOX_HEIGHT = 50;
+    private static final int LEVEL_BOX_WIDTH = 180;
+    private static final int LEVEL_BOX_HEIGHT = 80;
+    private static final int LEVEL_BOX_Y = 240;
+    private GraphicsConfiguration layerConfig;
+    private Layer background;
+    private Layer mainChrome;
+    private Layer levelChrome;
+    private Layer checkMark;
+    private final Layer[] menuItemLayers = new Layer[MENU_ITEM_COUNT * 4];
+    private static final int LEVELS_PER_PAGE = 10;
+    private static final int PAGE_MARKER_SIZE = 16;
+    private static final int PAGE_MARKER_SPACING = 24;
+    private static final int PAGE_MARKER_Y = 338;
+    private final Layer[] levelNameLayers = new Layer[LEVELS_PER_PAGE];
+    private int namePage = -1;
+    private Layer pageStrip;
+    private int stripLevel = -1;
+    private int stripCompleted = -1;
+    private Layer[] completedLayers;
+
+    private interface LayerPainter {
+        void paint(Graphics2D g2d);
+    }
+
+    private static final class Layer {
+        private final Image image;
+        private final int x, y;
+
+        Layer(Image image, int x, int y) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+        }
+
+        void draw(Graphics2D g2d) {
+            g2d.drawImage(image, x, y, null);
+        }
+    }
 
     {
         for (int i = 0; i < CIRCLE_COUNT; i++) {
@@ -29,8 +77,8 @@ public class MainMenu {
             circleR[i] = 40 + rand.nextInt(60);
             circleSpeed[i] = 0.2f + rand.nextFloat() * 0.4f;
             float hue = 0.55f + rand.nextFloat() * 0.25f;
-            circleColors[i] = new Color(Color.HSBtoRGB(hue, 0.5f, 1.0f));
-            circleColors[i] = new Color(circleColors[i].getRed(), circleColors[i].getGreen(), circleColors[i].getBlue(), 60);
+            circleColors[i] = Palette.rgb(Color.HSBtoRGB(hue, 0.5f, 1.0f));
+            circleColors[i] = Palette.color(circleColors[i].getRed(), circleColors[i].getGreen(), circleColors[i].getBlue(), 60);
         }
     }
 
@@ -38,16 +86,16 @@ public class MainMenu {
         this.game = game;
     }
 
-    public void handleKeyPressed(KeyEvent e) {
+    public void handleKeyPressed(int keyCode) {
         if (menuState == MenuState.MAIN) {
-            handleMainMenuKeyPressed(e);
+            handleMainMenuKeyPressed(keyCode);
         } else if (menuState == MenuState.LEVEL_SELECT) {
-            handleLevelSelectKeyPressed(e);
+            handleLevelSelectKeyPressed(keyCode);
         }
     }
 
-    private void handleMainMenuKeyPressed(KeyEvent e) {
-        switch (e.getKeyCode()) {
+    private void handleMainMenuKeyPressed(int keyCode) {
+        switch (keyCode) {
             case KeyEvent.VK_UP:
                 selectedMenuItem = Math.max(0, selectedMenuItem - 1);
                 break;
@@ -66,14 +114,28 @@ public class MainMenu {
         }
     }
 
-    private void handleLevelSelectKeyPressed(KeyEvent e) {
-        switch (e.getKeyCode()) {
+    private void handleLevelSelectKeyPressed(int keyCode) {
+        switch (keyCode) {
             case KeyEvent.VK_LEFT:
                 selectedLevel = Math.max(0, selectedLevel - 1);
                 break;
             case KeyEvent.VK_RIGHT:
                 selectedLevel = Math.min(game.getLevelCount() - 1, selectedLevel + 1);
                 break;
+            case KeyEvent.VK_UP:
+            case KeyEvent.VK_PAGE_UP:
+                selectedLevel = Math.max(0, selectedLevel - LEVELS_PER_PAGE);
+                break;
+            case KeyEvent.VK_DOWN:
+            case KeyEvent.VK_PAGE_DOWN:
+                selectedLevel = Math.min(game.getLevelCount() - 1, selectedLevel + LEVELS_PER_PAGE);
+                break;
+            case KeyEvent.VK_HOME:
+                selectedLevel = 0;
+                break;
+            case KeyEvent.VK_END:
+                selectedLevel = game.getLevelCount() - 1;
+                break;
             case KeyEvent.VK_ENTER:
                 game.startGame(selectedLevel);
                 break;
@@ -83,12 +145,19 @@ public class MainMenu {
         }
     }
 
-    public void render(Graphics g) {
+    public void capture(WorldSnapshot snapshot) {
+        snapshot.captureMenu(menuState == MenuState.LEVEL_SELECT, selectedMenuItem, selectedLevel,
+                game.getLevelName(selectedLevel), game.isDebugMode());
+    }
+
+    public void render(Graphics g, WorldSnapshot snapshot) {
         updateCircles();
-        if (menuState == MenuState.MAIN) {
-            renderMainMenu(g);
-        } else if (menuState == MenuState.LEVEL_SELECT) {
-            renderLevelSelect(g);
+        Graphics2D g2d = (Graphics2D) g;
+        validateLayers(g2d, snapshot.getLevelCount());
+        if (snapshot.isLevelSelect()) {
+            renderLevelSelect(g2d, snapshot);
+        } else {
+            renderMainMenu(g2d, snapshot);
         }
     }
 
@@ -102,106 +171,239 @@ public class MainMenu {
         }
     }
 
+    private void validateLayers(Graphics2D g2d, int levelCount) {
+        GraphicsConfiguration config = g2d.getDeviceConfiguration();
+        if (config == layerConfig && completedLayers != null && completedLayers.length == levelCount + 1) {
+            return;
+        }
+        layerConfig = config;
+        background = null;
+        mainChrome = null;
+        levelChrome = null;
+        checkMark = null;
+        Arrays.fill(circleSprites, null);
+        Arrays.fill(menuItemLayers, null);
+        Arrays.fill(levelNameLayers, null);
+        namePage = -1;
+        pageStrip = null;
+        completedLayers = new Layer[levelCount + 1];
+    }
+
+    private Layer bake(int x, int y, int width, int height, int transparency, LayerPainter painter) {
+        Image image;
+        if (layerConfig != null) {
+            image = layerConfig.createCompatibleImage(width, height, transparency);
+        } else if (transparency == Transparency.OPAQUE) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        } else {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics2D g2d = (Graphics2D) image.getGraphics();
+        try {
+            g2d.translate(-x, -y);
+            painter.paint(g2d);
+        } finally {
+            g2d.dispose();
+        }
+        return new Layer(image, x, y);
+    }
+
     private void renderBackground(Graphics2D g2d) {
-        GradientPaint gp = new GradientPaint(0, 0, new Color(40, 60, 120), WID, HEI, new Color(120, 40, 160));
-        g2d.setPaint(gp);
-        g2d.fillRect(0, 0, WID, HEI);
+        if (background == null) {
+            background = bake(0, 0, WID, HEI, Transparency.OPAQUE, this::paintGradient);
+        }
+        background.draw(g2d);
         for (int i = 0; i < CIRCLE_COUNT; i++) {
-            g2d.setColor(circleColors[i]);
-            g2d.fill(new Ellipse2D.Float(circleX[i] - circleR[i], circleY[i] - circleR[i], circleR[i]*2, circleR[i]*2));
+            if (circleSprites[i] == null) {
+                int index = i;
+                int size = (int) Math.ceil(circleR[i] * 2);
+                circleSprites[i] = bake(0, 0, size, size, Transparency.TRANSLUCENT, layer -> {
+                    layer.setColor(circleColors[index]);
+                    layer.fill(new Ellipse2D.Float(0, 0, circleR[index]*2, circleR[index]*2));
+                }).image;
+            }
+            g2d.drawImage(circleSprites[i], Math.round(circleX[i] - circleR[i]), Math.round(circleY[i] - circleR[i]), null);
         }
     }
 
-    private void renderMainMenu(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
+    private void paintGradient(Graphics2D g2d) {
+        GradientPaint gp = new GradientPaint(0, 0, Palette.color(40, 60, 120), WID, HEI, Palette.color(120, 40, 160));
+        g2d.setPaint(gp);
+        g2d.fillRect(0, 0, WID, HEI);
+    }
+
+    private void renderMainMenu(Graphics2D g2d, WorldSnapshot snapshot) {
         renderBackground(g2d);
+        if (mainChrome == null) {
+            mainChrome = bake(WID/2 - 260, 0, 520, HEI - 30, Transparency.TRANSLUCENT, this::paintMainChrome);
+        }
+        mainChrome.draw(g2d);
+        boolean debug = snapshot.isDebugMode();
+        for (int i = 0; i < MENU_ITEM_COUNT; i++) {
+            boolean selected = snapshot.getSelectedMenuItem() == i;
+            int slot = (i * 2 + (debug ? 1 : 0)) * 2 + (selected ? 1 : 0);
+            Layer item = menuItemLayers[slot];
+            if (item == null) {
+                int index = i;
+                int boxX = WID/2 - MENU_BOX_WIDTHS[i]/2;
+                int boxY = MENU_Y_POSITIONS[i] - MENU_BOX_HEIGHT/2;
+                item = bake(boxX - 16, boxY - 16, MENU_BOX_WIDTHS[i] + 32, MENU_BOX_HEIGHT + 32, Transparency.TRANSLUCENT,
+                        layer -> paintMenuItem(layer, index, menuItemText(index, debug), selected));
+                menuItemLayers[slot] = item;
+            }
+            item.draw(g2d);
+        }
+    }
+
+    private String menuItemText(int index, boolean debug) {
+        if (index == 0) {
+            return "Play Game";
+        } else if (index == 1) {
+            return "Debug Mode: " + (debug ? "ON" : "OFF");
+        }
+        return "Exit";
+    }
+
+    private void paintMainChrome(Graphics2D g2d) {
         drawLogo(g2d, WID / 2, 70);
         int menuW = 420, menuH = 260, menuX = WID/2 - menuW/2, menuY = 200;
-        g2d.setColor(new Color(0,255,255,80));
-        g2d.setStroke(new BasicStroke(10f));
+        g2d.setColor(Palette.color(0,255,255,80));
+        g2d.setStroke(Palette.stroke(10f));
         g2d.drawRoundRect(menuX-20, menuY-60, menuW+40, menuH+100, 40, 40);
-        g2d.setColor(new Color(0,255,255,180));
-        g2d.setStroke(new BasicStroke(3f));
+        g2d.setColor(Palette.color(0,255,255,180));
+        g2d.setStroke(Palette.stroke(3f));
         g2d.drawRoundRect(menuX-20, menuY-60, menuW+40, menuH+100, 40, 40);
-        g.setFont(titleFont);
-        drawNeonCenteredString(g2d, "VAULT VAULT", WID/2, 140, new Color(0,255,255), new Color(120,0,255), 8);
-        int[] yPositions = {260, 330, 400};
-        String[] menuItems = {"Play Game", "Debug Mode: " + (game.isDebugMode() ? "ON" : "OFF"), "Exit"};
-        int[] boxWidths = {220, 320, 180};
-        int boxHeight = 50;
-        for (int i = 0; i < menuItems.length; i++) {
-            int boxX = WID/2 - boxWidths[i]/2;
-            int boxY = yPositions[i] - boxHeight/2;
-            if (selectedMenuItem == i) {
-                g2d.setColor(new Color(0,255,255,80));
-                g2d.fillRoundRect(boxX-10, boxY-10, boxWidths[i]+20, boxHeight+20, 32, 32);
-                g2d.setColor(new Color(0, 180, 255, 180));
-                g2d.fillRoundRect(boxX, boxY, boxWidths[i], boxHeight, 24, 24);
-                g2d.setStroke(new BasicStroke(3f));
-                g2d.setColor(new Color(0,255,255,220));
-                g2d.drawRoundRect(boxX, boxY, boxWidths[i], boxHeight, 24, 24);
-                g.setFont(glowFont);
-                drawNeonCenteredString(g2d, menuItems[i], WID/2, yPositions[i]+10, new Color(0,255,255), new Color(120,0,255), 4);
-            } else {
-                g2d.setColor(new Color(255,255,255,30));
-                g2d.fillRoundRect(boxX, boxY, boxWidths[i], boxHeight, 24, 24);
-                g.setFont(menuFont);
-                drawCenteredString(g, menuItems[i], WID/2, yPositions[i]+8, new Color(220,220,255));
-            }
-        }
+        g2d.setFont(titleFont);
+        drawNeonCenteredString(g2d, "VAULT VAULT", WID/2, 140, Palette.color(0,255,255), Palette.color(120,0,255), 8);
         Polygon tri1 = new Polygon(new int[]{menuX-30, menuX-10, menuX-30}, new int[]{menuY-70, menuY-70, menuY-50}, 3);
         Polygon tri2 = new Polygon(new int[]{menuX+menuW+30, menuX+menuW+10, menuX+menuW+30}, new int[]{menuY+menuH+110, menuY+menuH+110, menuY+menuH+90}, 3);
-        g2d.setColor(new Color(0,255,255,120));
+        g2d.setColor(Palette.color(0,255,255,120));
         g2d.fillPolygon(tri1);
         g2d.fillPolygon(tri2);
-        g.setColor(new Color(180, 220, 255));
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 18));
-        drawCenteredString(g, "Use ↑/↓ to navigate, ENTER to select", WID/2, HEI-60, new Color(180,220,255));
+        g2d.setFont(hintFont);
+        drawCenteredString(g2d, "Use ↑/↓ to navigate, ENTER to select", WID/2, HEI-60, Palette.color(180,220,255));
     }
 
-    private void renderLevelSelect(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-        renderBackground(g2d);
-        int selW = 340, selH = 180, selX = WID/2 - selW/2, selY = 200;
-        g2d.setColor(new Color(120,0,255,80));
-        g2d.setStroke(new BasicStroke(8f));
-        g2d.drawRoundRect(selX-20, selY-60, selW+40, selH+100, 40, 40);
-        g.setFont(new Font("Segoe UI", Font.BOLD, 40));
-        drawNeonCenteredString(g2d, "SELECT LEVEL", WID/2, 140, new Color(120,0,255), new Color(0,255,255), 6);
-        g.setFont(menuFont);
-        int boxW = 180, boxH = 80;
-        int boxX = WID/2 - boxW/2, boxY = 240;
-        g2d.setColor(new Color(120,0,255,40));
-        g2d.fillRoundRect(boxX, boxY, boxW, boxH, 28, 28);
-        g2d.setColor(new Color(0,255,255,180));
-        g2d.setStroke(new BasicStroke(3f));
-        g2d.drawRoundRect(boxX, boxY, boxW, boxH, 28, 28);
-        String levelName;
-        if (selectedLevel == 0) {
-            levelName = "Tutorial";
-        } else if (selectedLevel == 6) {
-            levelName = "Donkey Kong";
+    private void paintMenuItem(Graphics2D g2d, int index, String text, boolean selected) {
+        int boxX = WID/2 - MENU_BOX_WIDTHS[index]/2;
+        int boxY = MENU_Y_POSITIONS[index] - MENU_BOX_HEIGHT/2;
+        if (selected) {
+            g2d.setColor(Palette.color(0,255,255,80));
+            g2d.fillRoundRect(boxX-10, boxY-10, MENU_BOX_WIDTHS[index]+20, MENU_BOX_HEIGHT+20, 32, 32);
+            g2d.setColor(Palette.color(0, 180, 255, 180));
+            g2d.fillRoundRect(boxX, boxY, MENU_BOX_WIDTHS[index], MENU_BOX_HEIGHT, 24, 24);
+            g2d.setStroke(Palette.stroke(3f));
+            g2d.setColor(Palette.color(0,255,255,220));
+            g2d.drawRoundRect(boxX, boxY, MENU_BOX_WIDTHS[index], MENU_BOX_HEIGHT, 24, 24);
+            g2d.setFont(glowFont);
+            drawNeonCenteredString(g2d, text, WID/2, MENU_Y_POSITIONS[index]+10, Palette.color(0,255,255), Palette.color(120,0,255), 4);
         } else {
-            levelName = "Level " + selectedLevel;
+            g2d.setColor(Palette.color(255,255,255,30));
+            g2d.fillRoundRect(boxX, boxY, MENU_BOX_WIDTHS[index], MENU_BOX_HEIGHT, 24, 24);
+            g2d.setFont(menuFont);
+            drawCenteredString(g2d, text, WID/2, MENU_Y_POSITIONS[index]+8, Palette.color(220,220,255));
         }
-        g.setFont(glowFont);
-        drawNeonCenteredString(g2d, levelName, WID/2, boxY + boxH/2 + 12, new Color(0,255,255), new Color(120,0,255), 3);
-        if (game.isLevelCompleted(selectedLevel)) {
-            g.setFont(new Font("Segoe UI", Font.BOLD, 36));
-            g.setColor(new Color(80, 255, 220));
-            drawCenteredString(g, "✓", WID/2 + 60, boxY + boxH/2 + 10, new Color(80,255,220));
+    }
+
+    private void renderLevelSelect(Graphics2D g2d, WorldSnapshot snapshot) {
+        int selectedLevel = snapshot.getSelectedLevel();
+        renderBackground(g2d);
+        if (levelChrome == null) {
+            levelChrome = bake(WID/2 - 300, 80, 600, 440, Transparency.TRANSLUCENT, this::paintLevelChrome);
+        }
+        levelChrome.draw(g2d);
+        int page = selectedLevel / LEVELS_PER_PAGE;
+        if (page != namePage) {
+            Arrays.fill(levelNameLayers, null);
+            namePage = page;
+        }
+        renderPage(g2d, snapshot, page);
+        Layer name = levelNameLayers[selectedLevel % LEVELS_PER_PAGE];
+        if (name == null) {
+            String levelName = snapshot.getSelectedLevelName();
+            name = bake(WID/2 - 150, LEVEL_BOX_Y, 300, LEVEL_BOX_HEIGHT, Transparency.TRANSLUCENT, layer -> {
+                layer.setFont(glowFont);
+                drawNeonCenteredString(layer, levelName, WID/2, LEVEL_BOX_Y + LEVEL_BOX_HEIGHT/2 + 12, Palette.color(0,255,255), Palette.color(120,0,255), 3);
+            });
+            levelNameLayers[selectedLevel % LEVELS_PER_PAGE] = name;
+        }
+        name.draw(g2d);
+        if (snapshot.isLevelCompleted(selectedLevel)) {
+            if (checkMark == null) {
+                checkMark = bake(WID/2 + 10, LEVEL_BOX_Y - 20, 100, LEVEL_BOX_HEIGHT + 40, Transparency.TRANSLUCENT, layer -> {
+                    layer.setFont(checkFont);
+                    drawCenteredString(layer, "✓", WID/2 + 60, LEVEL_BOX_Y + LEVEL_BOX_HEIGHT/2 + 10, Palette.color(80,255,220));
+                });
+            }
+            checkMark.draw(g2d);
+        }
+        int completed = snapshot.getCompletedLevelCount();
+        Layer progress = completedLayers[completed];
+        if (progress == null) {
+            String text = "Completed: " + completed + "/" + snapshot.getLevelCount();
+            progress = bake(WID/2 - 150, 395, 300, 35, Transparency.TRANSLUCENT, layer -> {
+                layer.setFont(hintFont);
+                drawCenteredString(layer, text, WID/2, 420, Palette.color(180,255,255));
+            });
+            completedLayers[completed] = progress;
+        }
+        progress.draw(g2d);
+    }
+
+    private void renderPage(Graphics2D g2d, WorldSnapshot snapshot, int page) {
+        int selectedLevel = snapshot.getSelectedLevel();
+        int completed = snapshot.getCompletedLevelCount();
+        if (pageStrip == null || stripLevel != selectedLevel || stripCompleted != completed) {
+            stripLevel = selectedLevel;
+            stripCompleted = completed;
+            pageStrip = bake(WID/2 - 150, PAGE_MARKER_Y - 4, 300, 56, Transparency.TRANSLUCENT,
+                    layer -> paintPageStrip(layer, snapshot, page, selectedLevel));
         }
-        g2d.setColor(new Color(0,255,255,180));
-        int arrowY = boxY + boxH/2 - 15;
+        pageStrip.draw(g2d);
+    }
+
+    private void paintPageStrip(Graphics2D g2d, WorldSnapshot snapshot, int page, int selectedLevel) {
+        int levelCount = snapshot.getLevelCount();
+        int first = page * LEVELS_PER_PAGE;
+        int startX = WID/2 - (LEVELS_PER_PAGE * PAGE_MARKER_SPACING - (PAGE_MARKER_SPACING - PAGE_MARKER_SIZE)) / 2;
+        for (int i = 0; i < LEVELS_PER_PAGE && first + i < levelCount; i++) {
+            int x = startX + i * PAGE_MARKER_SPACING;
+            g2d.setColor(snapshot.isLevelCompleted(first + i) ? Palette.color(80,255,220,200) : Palette.color(255,255,255,50));
+            g2d.fillRect(x, PAGE_MARKER_Y, PAGE_MARKER_SIZE, PAGE_MARKER_SIZE);
+            if (first + i == selectedLevel) {
+                g2d.setColor(Palette.color(0,255,255,220));
+                g2d.drawRect(x - 3, PAGE_MARKER_Y - 3, PAGE_MARKER_SIZE + 5, PAGE_MARKER_SIZE + 5);
+            }
+        }
+        g2d.setFont(hintFont);
+        String text = "Page " + (page + 1) + " / " + ((levelCount + LEVELS_PER_PAGE - 1) / LEVELS_PER_PAGE);
+        drawCenteredString(g2d, text, WID/2, 382, Palette.color(180,220,255));
+    }
+
+    private void paintLevelChrome(Graphics2D g2d) {
+        int selW = 340, selH = 180, selX = WID/2 - selW/2, selY = 200;
+        g2d.setColor(Palette.color(120,0,255,80));
+        g2d.setStroke(Palette.stroke(8f));
+        g2d.drawRoundRect(selX-20, selY-60, selW+40, selH+100, 40, 40);
+        g2d.setFont(levelTitleFont);
+        drawNeonCenteredString(g2d, "SELECT LEVEL", WID/2, 140, Palette.color(120,0,255), Palette.color(0,255,255), 6);
+        int boxX = WID/2 - LEVEL_BOX_WIDTH/2, boxY = LEVEL_BOX_Y;
+        g2d.setColor(Palette.color(120,0,255,40));
+        g2d.fillRoundRect(boxX, boxY, LEVEL_BOX_WIDTH, LEVEL_BOX_HEIGHT, 28, 28);
+        g2d.setColor(Palette.color(0,255,255,180));
+        g2d.setStroke(Palette.stroke(3f));
+        g2d.drawRoundRect(boxX, boxY, LEVEL_BOX_WIDTH, LEVEL_BOX_HEIGHT, 28, 28);
+        g2d.setColor(Palette.color(0,255,255,180));
+        int arrowY = boxY + LEVEL_BOX_HEIGHT/2 - 15;
         int[] leftX = {WID/2-120, WID/2-100, WID/2-100};
         int[] leftY = {arrowY+15, arrowY, arrowY+30};
         g2d.fillPolygon(leftX, leftY, 3);
         int[] rightX = {WID/2+120, WID/2+100, WID/2+100};
         int[] rightY = {arrowY+15, arrowY, arrowY+30};
         g2d.fillPolygon(rightX, rightY, 3);
-        g.setFont(new Font("Segoe UI", Font.PLAIN, 18));
-        drawCenteredString(g, "Completed: " + game.getCompletedLevelCount() + "/" + game.getLevelCount(), WID/2, 420, new Color(180,255,255));
-        drawCenteredString(g, "Use ←/→ to change level, ENTER to start, ESC to go back", WID/2, 480, new Color(180,220,255));
+        g2d.setFont(hintFont);
+        drawCenteredString(g2d, "Use ←/→ to change level, ENTER to start, ESC to go back", WID/2, 480, Palette.color(180,220,255));
+        drawCenteredString(g2d, "↑/↓ or PgUp/PgDn to change page", WID/2, 505, Palette.color(180,220,255));
     }
 
     private void drawCenteredString(Graphics g, String text, int x, int y, Color color) {
@@ -219,10 +421,10 @@ public class MainMenu {
         FontMetrics metrics = g2d.getFontMetrics();
         int textX = x - metrics.stringWidth(text) / 2;
         for (int i = glowSize; i > 0; i--) {
-            g2d.setColor(new Color(glow.getRed(), glow.getGreen(), glow.getBlue(), 30));
+            g2d.setColor(Palette.color(glow.getRed(), glow.getGreen(), glow.getBlue(), 30));
             g2d.drawString(text, textX - i, y - i);
             g2d.drawString(text, textX + i, y + i);
-            g2d.setColor(new Color(altGlow.getRed(), altGlow.getGreen(), altGlow.getBlue(), 20));
+            g2d.setColor(Palette.color(altGlow.getRed(), altGlow.getGreen(), altGlow.getBlue(), 20));
             g2d.drawString(text, textX + i, y - i);
             g2d.drawString(text, textX - i, y + i);
         }
@@ -232,16 +434,16 @@ public class MainMenu {
 
     private void drawLogo(Graphics2D g2d, int cx, int cy) {
         for (int r = 60; r >= 40; r -= 5) {
-            g2d.setColor(new Color(0, 255, 255, 18));
+            g2d.setColor(Palette.color(0, 255, 255, 18));
             g2d.fillOval(cx - r, cy - r, r * 2, r * 2);
         }
-        g2d.setColor(new Color(180, 220, 255));
-        g2d.setStroke(new BasicStroke(7f));
+        g2d.setColor(Palette.color(180, 220, 255));
+        g2d.setStroke(Palette.stroke(7f));
         g2d.drawOval(cx - 38, cy - 38, 76, 76);
-        g2d.setColor(new Color(60, 80, 120));
+        g2d.setColor(Palette.color(60, 80, 120));
         g2d.fillOval(cx - 32, cy - 32, 64, 64);
-        g2d.setColor(new Color(200, 240, 255));
-        g2d.setStroke(new BasicStroke(5f));
+        g2d.setColor(Palette.color(200, 240, 255));
+        g2d.setStroke(Palette.stroke(5f));
         for (int i = 0; i < 4; i++) {
             double angle = Math.PI / 4 + i * Math.PI / 2;
             int x1 = cx + (int) (Math.cos(angle) * 0);
@@ -250,9 +452,9 @@ public class MainMenu {
             int y2 = cy + (int) (Math.sin(angle) * 24);
             g2d.drawLine(x1, y1, x2, y2);
         }
-        g2d.setColor(new Color(255, 255, 255, 220));
+        g2d.setColor(Palette.color(255, 255, 255, 220));
         g2d.fillOval(cx - 8, cy - 8, 16, 16);
-        g2d.setColor(new Color(120, 180, 255));
+        g2d.setColor(Palette.color(120, 180, 255));
         for (int i = 0; i < 6; i++) {
             double angle = i * Math.PI / 3;
             int bx = cx + (int) (Math.cos(angle) * 32);
@@ -0,0 +1,117 @@
+import java.awt.*;
+import java.util.Arrays;
+
+public final class Palette {
+    private static int[] colorKeys = new int[256];
+    private static Color[] colorValues = new Color[256];
+    private static int colorCount = 0;
+    private static Font[] fonts = new Font[16];
+    private static int fontCount = 0;
+    private static BasicStroke[] strokes = new BasicStroke[16];
+    private static int strokeCount = 0;
+    private static final AlphaComposite[] composites = new AlphaComposite[256];
+
+    private Palette() {
+    }
+
+    public static Color rgb(int rgb) {
+        return argb(0xFF000000 | rgb);
+    }
+
+    public static Color color(int r, int g, int b) {
+        return color(r, g, b, 255);
+    }
+
+    public static Color color(int r, int g, int b, int a) {
+        if ((r | g | b | a) < 0 || r > 255 || g > 255 || b > 255 || a > 255) {
+            throw new IllegalArgumentException("Color parameter outside of expected range: " + r + ", " + g + ", " + b + ", " + a);
+        }
+        return argb((a << 24) | (r << 16) | (g << 8) | b);
+    }
+
+    public static synchronized Color argb(int argb) {
+        int mask = colorValues.length - 1;
+        int i = mix(argb) & mask;
+        Color c;
+        while ((c = colorValues[i]) != null) {
+            if (colorKeys[i] == argb) {
+                return c;
+            }
+            i = (i + 1) & mask;
+        }
+        c = new Color(argb, true);
+        colorKeys[i] = argb;
+        colorValues[i] = c;
+        if (++colorCount * 2 > colorValues.length) {
+            rehashColors();
+        }
+        return c;
+    }
+
+    public static synchronized Font font(String name, int style, int size) {
+        for (int i = 0; i < fontCount; i++) {
+            Font f = fonts[i];
+            if (f.getSize() == size && f.getStyle() == style && f.getName().equals(name)) {
+                return f;
+            }
+        }
+        Font f = new Font(name, style, size);
+        if (fontCount == fonts.length) {
+            fonts = Arrays.copyOf(fonts, fontCount * 2);
+        }
+        fonts[fontCount++] = f;
+        return f;
+    }
+
+    public static Stroke stroke(float width) {
+        return stroke(width, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER);
+    }
+
+    public static synchronized Stroke stroke(float width, int cap, int join) {
+        for (int i = 0; i < strokeCount; i++) {
+            BasicStroke s = strokes[i];
+            if (s.getLineWidth() == width && s.getEndCap() == cap && s.getLineJoin() == join) {
+                return s;
+            }
+        }
+        BasicStroke s = new BasicStroke(width, cap, join);
+        if (strokeCount == strokes.length) {
+            strokes = Arrays.copyOf(strokes, strokeCount * 2);
+        }
+        strokes[strokeCount++] = s;
+        return s;
+    }
+
+    public static Composite alpha(float alpha) {
+        int level = Math.round(Math.max(0f, Math.min(1f, alpha)) * 255);
+        AlphaComposite composite = composites[level];
+        if (composite == null) {
+            composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, level / 255f);
+            composites[level] = composite;
+        }
+        return composite;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static void rehashColors() {
+        int[] oldKeys = colorKeys;
+        Color[] oldValues = colorValues;
+        colorKeys = new int[oldKeys.length * 2];
+        colorValues = new Color[oldValues.length * 2];
+        int mask = colorValues.length - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = mix(oldKeys[j]) & mask;
+                while (colorValues[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                colorKeys[i] = oldKeys[j];
+                colorValues[i] = oldValues[j];
+            }
+        }
+    }
+}
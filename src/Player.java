@@ -1,35 +1,44 @@
-import java.awt.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class Player {
     private float x, y;
+    private float prevX, prevY;
     private int width = 30;
     private int height = 50;
     private float velocityX = 0;
     private float velocityY = 0;
-    private final float moveSpeed = 5.0f;
-    private final float jumpStrength = -12.0f;
-    private final float gravity = 0.3f;
+    private final float moveSpeed = 300.0f;
+    private final float jumpStrength = -720.0f;
+    private final float gravity = 2160.0f;
+    private final float maxFallSpeed = 1200.0f;
     private boolean onGround = false;
     private boolean movingLeft = false;
     private boolean movingRight = false;
+    private final Aabb bounds = new Aabb();
 
     public Player(float x, float y) {
         this.x = x;
         this.y = y;
+        storePrevious();
     }
 
-    public void update() {
+    public void storePrevious() {
+        prevX = x;
+        prevY = y;
+    }
+
+    public void updateVelocity() {
         velocityX = 0;
         if (movingLeft) velocityX -= moveSpeed;
         if (movingRight) velocityX += moveSpeed;
-        if (velocityY > 20) velocityY = 20;
-        x += velocityX;
-        y += velocityY;
+        if (velocityY > maxFallSpeed) velocityY = maxFallSpeed;
     }
 
-    public void applyGravity() {
+    public void applyGravity(float seconds) {
         if (!onGround) {
-            velocityY += gravity;
+            velocityY += gravity * seconds;
         }
     }
 
@@ -40,40 +49,46 @@ public class Player {
         }
     }
 
-    public void render(Graphics g) {
-        g.setColor(Color.RED);
-        g.fillRect((int)x, (int)y, width, height);
-    }
-
-    public Rectangle getBounds() {
-        return new Rectangle((int)x, (int)y, width, height);
-    }
-
-    public Rectangle getTopBounds() {
-        return new Rectangle((int)x + 2, (int)y, width - 4, 5);
-    }
-
-    public Rectangle getBottomBounds() {
-        return new Rectangle((int)x + 2, (int)y + height - 5, width - 4, 5);
+    public void writeState(DataOutput out) throws IOException {
+        out.writeFloat(x);
+        out.writeFloat(y);
+        out.writeFloat(prevX);
+        out.writeFloat(prevY);
+        out.writeFloat(velocityX);
+        out.writeFloat(velocityY);
+        out.writeBoolean(onGround);
+        out.writeBoolean(movingLeft);
+        out.writeBoolean(movingRight);
     }
 
-    public Rectangle getLeftBounds() {
-        return new Rectangle((int)x, (int)y + 2, 5, height - 4);
+    public void readState(DataInput in) throws IOException {
+        x = in.readFloat();
+        y = in.readFloat();
+        prevX = in.readFloat();
+        prevY = in.readFloat();
+        velocityX = in.readFloat();
+        velocityY = in.readFloat();
+        onGround = in.readBoolean();
+        movingLeft = in.readBoolean();
+        movingRight = in.readBoolean();
     }
 
-    public Rectangle getRightBounds() {
-        return new Rectangle((int)x + width - 5, (int)y + 2, 5, height - 4);
+    public Aabb getAabb() {
+        return bounds.set((int)x, (int)y, width, height);
     }
 
     public float getX() { return x; }
     public void setX(float x) { this.x = x; }
     public float getY() { return y; }
     public void setY(float y) { this.y = y; }
+    public float getPrevX() { return prevX; }
+    public float getPrevY() { return prevY; }
     public int getWidth() { return width; }
     public int getHeight() { return height; }
     public float getVelocityY() { return velocityY; }
     public void setVelocityY(float velocityY) { this.velocityY = velocityY; }
     public void setOnGround(boolean onGround) { this.onGround = onGround; }
+    public boolean isOnGround() { return onGround; }
     public void setMovingLeft(boolean movingLeft) { this.movingLeft = movingLeft; }
     public void setMovingRight(boolean movingRight) { this.movingRight = movingRight; }
     public float getVelocityX() { return velocityX; }
@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class Replay {
+    public static final int MAGIC = 0x56565250;
+    public static final int VERSION = 4;
+    public static final String EXTENSION = ".vvr";
+    public static final String RECORD_PROPERTY = "vaultvault.record";
+    public static final String REPLAY_PROPERTY = "vaultvault.replay";
+    public static final int KEYFRAME_INTERVAL = 600;
+    static final int TAG_INPUT = 1;
+    static final int TAG_KEYFRAME = 2;
+    static final int TAG_END = 3;
+
+    private final int levelIndex;
+    private final String levelName;
+    private final TickRate tickRate;
+    private final byte[] inputs;
+    private final int tickCount;
+    private final long[] keyframeTicks;
+    private final byte[][] keyframes;
+    private final int keyframeCount;
+    private final long completedTicks;
+
+    private Replay(int levelIndex, String levelName, TickRate tickRate, byte[] inputs, int tickCount,
+                   long[] keyframeTicks, byte[][] keyframes, int keyframeCount, long completedTicks) {
+        this.levelIndex = levelIndex;
+        this.levelName = levelName;
+        this.tickRate = tickRate;
+        this.inputs = inputs;
+        this.tickCount = tickCount;
+        this.keyframeTicks = keyframeTicks;
+        this.keyframes = keyframes;
+        this.keyframeCount = keyframeCount;
+        this.completedTicks = completedTicks;
+    }
+
+    public static Replay read(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            int magic = data.getInt();
+            if (magic != MAGIC) {
+                throw new IOException(file + ": not a replay (bad magic 0x" + Integer.toHexString(magic) + ")");
+            }
+            int version = data.getShort();
+            if (version != VERSION) {
+                throw new IOException(file + ": unsupported replay version " + version);
+            }
+            int levelIndex = data.getInt();
+            byte[] name = new byte[readLength(data, data.remaining(), file)];
+            data.get(name);
+            long hz = readVarLong(data, file);
+            TickRate tickRate;
+            try {
+                tickRate = TickRate.of((int) hz);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + ": unsupported tick rate " + hz + " Hz");
+            }
+            long interval = readVarLong(data, file);
+            if (interval != KEYFRAME_INTERVAL) {
+                throw new IOException(file + ": unsupported keyframe interval " + interval);
+            }
+
+            byte[] inputs = new byte[KEYFRAME_INTERVAL];
+            int tickCount = 0;
+            long[] keyframeTicks = new long[8];
+            byte[][] keyframes = new byte[8][];
+            int keyframeCount = 0;
+            long completedTicks = -1;
+            while (data.hasRemaining()) {
+                int tag = data.get();
+                if (tag == TAG_INPUT) {
+                    byte input = data.get();
+                    int run = readLength(data, Integer.MAX_VALUE - tickCount, file);
+                    if (tickCount + run > inputs.length) {
+                        inputs = Arrays.copyOf(inputs, Math.max(inputs.length * 2, tickCount + run));
+                    }
+                    Arrays.fill(inputs, tickCount, tickCount + run, input);
+                    tickCount += run;
+                } else if (tag == TAG_KEYFRAME) {
+                    long tick = readVarLong(data, file);
+                    if (tick != tickCount) {
+                        throw new IOException(file + ": keyframe for tick " + tick + " found at tick " + tickCount);
+                    }
+                    byte[] state = new byte[readLength(data, data.remaining(), file)];
+                    data.get(state);
+                    if (keyframeCount == keyframes.length) {
+                        keyframeTicks = Arrays.copyOf(keyframeTicks, keyframeCount * 2);
+                        keyframes = Arrays.copyOf(keyframes, keyframeCount * 2);
+                    }
+                    keyframeTicks[keyframeCount] = tick;
+                    keyframes[keyframeCount++] = state;
+                } else if (tag == TAG_END) {
+                    long recorded = readVarLong(data, file);
+                    if (recorded != tickCount) {
+                        throw new IOException(file + ": " + recorded + " ticks recorded, " + tickCount + " found");
+                    }
+                    completedTicks = readVarLong(data, file) - 1;
+                    break;
+                } else {
+                    throw new IOException(file + ": unknown record tag " + tag);
+                }
+            }
+            if (keyframeCount == 0) {
+                throw new IOException(file + ": replay has no keyframes");
+            }
+            return new Replay(levelIndex, new String(name, StandardCharsets.UTF_8), tickRate, inputs, tickCount,
+                    keyframeTicks, keyframes, keyframeCount, completedTicks);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(file + ": truncated replay");
+        }
+    }
+
+    private static int readLength(ByteBuffer data, int max, Path file) throws IOException {
+        long length = readVarLong(data, file);
+        if (length < 0 || length > max) {
+            throw new IOException(file + ": length " + length + " out of range");
+        }
+        return (int) length;
+    }
+
+    private static long readVarLong(ByteBuffer data, Path file) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException(file + ": malformed varint");
+    }
+
+    public int getLevelIndex() { return levelIndex; }
+    public String getLevelName() { return levelName; }
+    public TickRate getTickRate() { return tickRate; }
+    public int getTickCount() { return tickCount; }
+    public int getInput(int tick) { return inputs[tick]; }
+    public long getCompletedTicks() { return completedTicks; }
+
+    public void seek(Simulation simulation, int tick) {
+        if (simulation.getTickRate() != tickRate) {
+            throw new IllegalArgumentException("Replay recorded at " + tickRate + ", simulation runs at " + simulation.getTickRate());
+        }
+        if (tick < 0 || tick > tickCount) {
+            throw new IndexOutOfBoundsException("Tick " + tick + " not in replay of " + tickCount + " ticks");
+        }
+        int k = keyframeCount - 1;
+        while (keyframeTicks[k] > tick) {
+            k--;
+        }
+        if (simulation.getLevelIndex() != levelIndex || simulation.getPhase() == Simulation.Phase.IDLE) {
+            simulation.startLevel(levelIndex);
+        }
+        simulation.restoreState(keyframes[k]);
+        for (int t = (int) keyframeTicks[k]; t < tick; t++) {
+            simulation.advance(inputs[t]);
+        }
+    }
+
+    public int verify(Simulation simulation) {
+        seek(simulation, 0);
+        int k = 0;
+        for (int t = 0; t < tickCount; t++) {
+            if (k < keyframeCount && keyframeTicks[k] == t) {
+                if (!Arrays.equals(simulation.saveState(), keyframes[k])) {
+                    return t;
+                }
+                k++;
+            }
+            simulation.advance(inputs[t]);
+        }
+        if (completedTicks >= 0 && (simulation.getPhase() != Simulation.Phase.LEVEL_COMPLETE || simulation.getLevelTicks() != completedTicks)) {
+            return tickCount;
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java Replay <replay" + EXTENSION + ">... (verifies each replay headless)");
+            return;
+        }
+        boolean ok = true;
+        for (String arg : args) {
+            Replay replay;
+            try {
+                replay = read(Path.of(arg));
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+                ok = false;
+                continue;
+            }
+            Simulation simulation = new Simulation(LevelSource.openDefault(), VaultVault.WIDTH, VaultVault.HEIGHT, replay.tickRate);
+            if (!simulation.getLevelName(replay.levelIndex).equals(replay.levelName)) {
+                System.out.println(arg + ": recorded on \"" + replay.levelName + "\", level " + replay.levelIndex +
+                        " is now \"" + simulation.getLevelName(replay.levelIndex) + "\"");
+                ok = false;
+                continue;
+            }
+            long start = System.nanoTime();
+            int mismatch = replay.verify(simulation);
+            long micros = (System.nanoTime() - start) / 1000;
+            if (mismatch >= 0) {
+                System.out.println(arg + ": DIVERGED at tick " + mismatch);
+                ok = false;
+            } else {
+                System.out.println(arg + ": verified " + replay.tickCount + " ticks in " + micros + " us" +
+                        (replay.completedTicks >= 0 ? ", completed in " + replay.completedTicks + " ticks" : ", not completed"));
+            }
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ReplayWriter {
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("replay-writer").factory());
+    private static final int FLUSH_BYTES = 4096;
+
+    private final Path file;
+    private byte[] buffer = new byte[FLUSH_BYTES * 2];
+    private int length = 0;
+    private OutputStream out;
+    private boolean failed = false;
+    private long recorded = 0;
+    private int runInput = -1;
+    private long runLength = 0;
+
+    public ReplayWriter(Path file, int levelIndex, String levelName, TickRate tickRate) {
+        this.file = file;
+        writeInt(Replay.MAGIC);
+        writeByte(Replay.VERSION >> 8);
+        writeByte(Replay.VERSION);
+        writeInt(levelIndex);
+        byte[] name = levelName.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(name.length);
+        writeBytes(name);
+        writeVarLong(tickRate.getHz());
+        writeVarLong(Replay.KEYFRAME_INTERVAL);
+        WRITER.execute(this::open);
+    }
+
+    public void record(Simulation simulation, int input) {
+        if (recorded % Replay.KEYFRAME_INTERVAL == 0) {
+            flushRun();
+            byte[] state = simulation.saveState();
+            writeByte(Replay.TAG_KEYFRAME);
+            writeVarLong(recorded);
+            writeVarLong(state.length);
+            writeBytes(state);
+            flush();
+        }
+        if (input != runInput) {
+            flushRun();
+            runInput = input;
+        }
+        runLength++;
+        recorded++;
+        if (length >= FLUSH_BYTES) {
+            flush();
+        }
+    }
+
+    public void finish(long completedTicks) {
+        flushRun();
+        writeByte(Replay.TAG_END);
+        writeVarLong(recorded);
+        writeVarLong(completedTicks + 1);
+        flush();
+        WRITER.execute(this::close);
+    }
+
+    public static void awaitPending() {
+        try {
+            WRITER.submit(() -> { }).get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Replay writer failed", e);
+        }
+    }
+
+    private void flushRun() {
+        if (runLength > 0) {
+            writeByte(Replay.TAG_INPUT);
+            writeByte(runInput);
+            writeVarLong(runLength);
+            runLength = 0;
+        }
+    }
+
+    private void flush() {
+        if (length == 0) {
+            return;
+        }
+        byte[] chunk = Arrays.copyOf(buffer, length);
+        length = 0;
+        WRITER.execute(() -> append(chunk));
+    }
+
+    private void open() {
+        try {
+            out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void append(byte[] chunk) {
+        if (failed) {
+            return;
+        }
+        try {
+            out.write(chunk);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void close() {
+        if (failed) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        System.out.println("Replay recording to " + file + " failed: " + e.getMessage());
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+        }
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        buffer[length++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+}
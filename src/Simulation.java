@@ -0,0 +1,328 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public class Simulation {
+    public static final float LEVEL_COMPLETE_SECONDS = 1.0f;
+    public static final float LEVEL_CHANGE_SECONDS = 0.75f;
+    public static final int INPUT_LEFT = 1;
+    public static final int INPUT_RIGHT = 2;
+    public static final int INPUT_JUMP = 4;
+    private static final ExecutorService PREPARER = Executors.newVirtualThreadPerTaskExecutor();
+
+    public enum Phase {
+        IDLE,
+        PLAYING,
+        LEVEL_COMPLETE,
+        LEVEL_CHANGE,
+        FINISHED
+    }
+
+    private final Player player;
+    private final LevelSource levels;
+    private final TickRate tickRate;
+    private final int levelCompleteTicks;
+    private final int levelChangeTicks;
+    private final boolean[] completedLevels;
+    private int completedCount = 0;
+    private Level level;
+    private Level spare;
+    private CompletableFuture<Level> prepared;
+    private int preparedIndex = -1;
+    private Consumer<Level> levelWarmUp;
+    private FrameProfiler profiler;
+    private Path replayDirectory;
+    private ReplayWriter recorder;
+    private int levelIndex = 0;
+    private Phase phase = Phase.IDLE;
+    private long tick = 0;
+    private long levelTicks = 0;
+    private int phaseTicks = 0;
+    private int nextLevelToStart = -1;
+    private long attempt = 0;
+
+    public Simulation() {
+        this(LevelSource.openDefault());
+    }
+
+    public Simulation(LevelSource levels) {
+        this(levels, VaultVault.WIDTH, VaultVault.HEIGHT);
+    }
+
+    public Simulation(LevelSource levels, int width, int height) {
+        this(levels, width, height, TickRate.getDefault());
+    }
+
+    public Simulation(LevelSource levels, int width, int height, TickRate tickRate) {
+        this.levels = levels;
+        this.tickRate = tickRate;
+        levelCompleteTicks = tickRate.ticks(LEVEL_COMPLETE_SECONDS);
+        levelChangeTicks = tickRate.ticks(LEVEL_CHANGE_SECONDS);
+        player = new Player(50, 300);
+        level = new Level(width, height, tickRate);
+        level.addPlayer(player);
+        completedLevels = new boolean[levels.size()];
+    }
+
+    public void startLevel(int index) {
+        GameEvents.LevelLoad load = new GameEvents.LevelLoad();
+        load.begin();
+        stopRecording();
+        attempt++;
+        levelIndex = index;
+        if (levelIndex >= levels.size()) {
+            levelIndex = 0;
+        }
+        Level ready = takePrepared(levelIndex);
+        if (ready != null) {
+            spare = level;
+            level = ready;
+        } else {
+            level.reset();
+            levels.load(levelIndex, level);
+        }
+        load.end();
+        if (load.shouldCommit()) {
+            load.level = levelIndex;
+            load.name = levels.getName(levelIndex);
+            load.prepared = ready != null;
+            load.commit();
+        }
+        level.addPlayer(player);
+        level.setProfiler(profiler);
+        player.setX(level.getSpawnX());
+        player.setY(level.getSpawnY());
+        player.setVelocityX(0);
+        player.setVelocityY(0);
+        player.storePrevious();
+        phase = Phase.PLAYING;
+        phaseTicks = 0;
+        levelTicks = 0;
+        nextLevelToStart = -1;
+        if (replayDirectory != null) {
+            Path file = replayDirectory.resolve(System.currentTimeMillis() + "-" + levelIndex + Replay.EXTENSION);
+            recorder = new ReplayWriter(file, levelIndex, levels.getName(levelIndex), tickRate);
+        }
+    }
+
+    public void setReplayDirectory(Path replayDirectory) {
+        this.replayDirectory = replayDirectory;
+    }
+
+    public void stopRecording() {
+        if (recorder != null) {
+            recorder.finish(-1);
+            recorder = null;
+        }
+    }
+
+    public void advance(int input) {
+        if (recorder != null) {
+            recorder.record(this, input);
+        }
+        player.setMovingLeft((input & INPUT_LEFT) != 0);
+        player.setMovingRight((input & INPUT_RIGHT) != 0);
+        if ((input & INPUT_JUMP) != 0) {
+            player.jump();
+        }
+        step();
+    }
+
+    public byte[] saveState() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(tick);
+            out.writeLong(levelTicks);
+            out.writeByte(phase.ordinal());
+            out.writeInt(phaseTicks);
+            out.writeInt(nextLevelToStart);
+            player.writeState(out);
+            level.writeState(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public void restoreState(byte[] state) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+            tick = in.readLong();
+            levelTicks = in.readLong();
+            phase = Phase.values()[in.readByte()];
+            phaseTicks = in.readInt();
+            nextLevelToStart = in.readInt();
+            player.readState(in);
+            level.readState(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void prepareLevel(int index) {
+        takePrepared(-1);
+        Level target = spare != null ? spare : new Level(level.getWidth(), level.getHeight(), tickRate);
+        spare = null;
+        Consumer<Level> warmUp = levelWarmUp;
+        preparedIndex = index;
+        prepared = CompletableFuture.supplyAsync(() -> {
+            target.reset();
+            levels.load(index, target);
+            if (warmUp != null) {
+                warmUp.accept(target);
+            }
+            return target;
+        }, PREPARER);
+    }
+
+    private Level takePrepared(int index) {
+        if (prepared == null) {
+            return null;
+        }
+        CompletableFuture<Level> pending = prepared;
+        prepared = null;
+        Level ready;
+        try {
+            ready = pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        if (index != preparedIndex) {
+            spare = ready;
+            return null;
+        }
+        return ready;
+    }
+
+    public void setLevelWarmUp(Consumer<Level> levelWarmUp) {
+        this.levelWarmUp = levelWarmUp;
+    }
+
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+        level.setProfiler(profiler);
+    }
+
+    public void stop() {
+        phase = Phase.IDLE;
+    }
+
+    public void step() {
+        tick++;
+        if (phase == Phase.IDLE || phase == Phase.FINISHED) {
+            return;
+        }
+        level.update();
+        if (phase == Phase.PLAYING && level.isCompleted()) {
+            if (!completedLevels[levelIndex]) {
+                completedLevels[levelIndex] = true;
+                completedCount++;
+            }
+            if (recorder != null) {
+                recorder.finish(levelTicks);
+                recorder = null;
+            }
+            GameEvents.LevelComplete done = new GameEvents.LevelComplete();
+            if (done.shouldCommit()) {
+                done.level = levelIndex;
+                done.name = levels.getName(levelIndex);
+                done.ticks = levelTicks;
+                done.time = levelTicks * 1000 / tickRate.getHz();
+                done.commit();
+            }
+            phase = Phase.LEVEL_COMPLETE;
+            phaseTicks = 0;
+            if (levelWarmUp != null && levelIndex + 1 < levels.size()) {
+                prepareLevel(levelIndex + 1);
+            }
+        }
+        if (phase == Phase.LEVEL_COMPLETE) {
+            phaseTicks++;
+            if (phaseTicks >= levelCompleteTicks) {
+                if (levelIndex + 1 < levels.size()) {
+                    phase = Phase.LEVEL_CHANGE;
+                    phaseTicks = 0;
+                    nextLevelToStart = levelIndex + 1;
+                } else {
+                    phase = Phase.FINISHED;
+                }
+            }
+        } else if (phase == Phase.LEVEL_CHANGE) {
+            phaseTicks++;
+            if (phaseTicks >= levelChangeTicks) {
+                startLevel(nextLevelToStart);
+            }
+        } else {
+            levelTicks++;
+        }
+    }
+
+    public void step(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            step();
+        }
+    }
+
+    public Player getPlayer() { return player; }
+    public Level getLevel() { return level; }
+    public int getLevelIndex() { return levelIndex; }
+    public int getLevelCount() { return levels.size(); }
+    public String getLevelName(int index) { return levels.getName(index); }
+    public Phase getPhase() { return phase; }
+    public int getPhaseTicks() { return phaseTicks; }
+    public int getLevelCompleteTicks() { return levelCompleteTicks; }
+    public int getLevelChangeTicks() { return levelChangeTicks; }
+    public TickRate getTickRate() { return tickRate; }
+    public long getTick() { return tick; }
+    public long getLevelTicks() { return levelTicks; }
+    public long getAttempt() { return attempt; }
+
+    public boolean isLevelCompleted(int idx) {
+        if (idx >= 0 && idx < completedLevels.length) {
+            return completedLevels[idx];
+        }
+        return false;
+    }
+
+    public int getCompletedLevelCount() {
+        return completedCount;
+    }
+
+    void captureProgress(WorldSnapshot snapshot) {
+        snapshot.captureProgress(completedLevels, completedCount);
+    }
+
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Simulation sim = new Simulation();
+        for (int i = 0; i < sim.getLevelCount(); i++) {
+            sim.startLevel(i);
+            long start = System.nanoTime();
+            for (int t = 0; t < ticks; t++) {
+                if (sim.getPhase() != Phase.PLAYING) {
+                    sim.startLevel(i);
+                }
+                sim.getPlayer().setMovingRight((t / 120) % 2 == 0);
+                sim.getPlayer().setMovingLeft((t / 120) % 2 == 1);
+                if (t % 45 == 0) {
+                    sim.getPlayer().jump();
+                }
+                sim.step();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println("Level " + i + ": " + ticks + " ticks in " + (elapsed / 1000000) + " ms (" +
+                    (long) (ticks / (elapsed / 1e9)) + " ticks/s)");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import java.util.Arrays;
+
+public class SpatialGrid {
+    private final int cellShift;
+    private final int bucketMask;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private int[] stamps = new int[64];
+    private int stamp = 0;
+    private int[] results = new int[64];
+    private int resultCount = 0;
+
+    public SpatialGrid(int cellShift, int bucketCount) {
+        if (Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("bucketCount must be a power of two: " + bucketCount);
+        }
+        this.cellShift = cellShift;
+        this.bucketMask = bucketCount - 1;
+        this.buckets = new int[bucketCount][];
+        this.bucketSizes = new int[bucketCount];
+    }
+
+    public SpatialGrid() {
+        this(7, 1024);
+    }
+
+    public void clear() {
+        Arrays.fill(bucketSizes, 0);
+        Arrays.fill(stamps, 0);
+        stamp = 0;
+        resultCount = 0;
+    }
+
+    public void insert(int id, int x, int y, int width, int height) {
+        if (id >= stamps.length) {
+            stamps = Arrays.copyOf(stamps, Math.max(id + 1, stamps.length * 2));
+        }
+        int cx0 = x >> cellShift;
+        int cy0 = y >> cellShift;
+        int cx1 = (x + width) >> cellShift;
+        int cy1 = (y + height) >> cellShift;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                add(bucket(cx, cy), id);
+            }
+        }
+    }
+
+    public void remove(int id, int x, int y, int width, int height) {
+        int cx0 = x >> cellShift;
+        int cy0 = y >> cellShift;
+        int cx1 = (x + width) >> cellShift;
+        int cy1 = (y + height) >> cellShift;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                removeFrom(bucket(cx, cy), id);
+            }
+        }
+    }
+
+    public void move(int id, int oldX, int oldY, int newX, int newY, int width, int height) {
+        if (oldX >> cellShift == newX >> cellShift &&
+            oldY >> cellShift == newY >> cellShift &&
+            (oldX + width) >> cellShift == (newX + width) >> cellShift &&
+            (oldY + height) >> cellShift == (newY + height) >> cellShift) {
+            return;
+        }
+        remove(id, oldX, oldY, width, height);
+        insert(id, newX, newY, width, height);
+    }
+
+    public int query(int minX, int minY, int maxX, int maxY) {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        resultCount = 0;
+        int cx0 = minX >> cellShift;
+        int cy0 = minY >> cellShift;
+        int cx1 = maxX >> cellShift;
+        int cy1 = maxY >> cellShift;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int b = bucket(cx, cy);
+                int[] ids = buckets[b];
+                int size = bucketSizes[b];
+                for (int i = 0; i < size; i++) {
+                    int id = ids[i];
+                    if (stamps[id] != stamp) {
+                        stamps[id] = stamp;
+                        if (resultCount == results.length) {
+                            results = Arrays.copyOf(results, resultCount * 2);
+                        }
+                        results[resultCount++] = id;
+                    }
+                }
+            }
+        }
+        Arrays.sort(results, 0, resultCount);
+        return resultCount;
+    }
+
+    public int result(int index) {
+        return results[index];
+    }
+
+    private int bucket(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & bucketMask;
+    }
+
+    private void add(int b, int id) {
+        int[] ids = buckets[b];
+        int size = bucketSizes[b];
+        if (ids == null) {
+            ids = new int[4];
+            buckets[b] = ids;
+        } else if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            buckets[b] = ids;
+        }
+        ids[size] = id;
+        bucketSizes[b] = size + 1;
+    }
+
+    private void removeFrom(int b, int id) {
+        int[] ids = buckets[b];
+        int size = bucketSizes[b];
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                ids[i] = ids[size - 1];
+                bucketSizes[b] = size - 1;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SpriteAtlas {
+    public static final int PAD = 20;
+    public static final int MAX_FRAMES = 240;
+    private static final int COLUMNS = 8;
+    private static final Map<String, SpriteAtlas> CACHE = new HashMap<>();
+
+    public interface FramePainter {
+        void paint(Graphics2D g, int frame);
+    }
+
+    private final Image sheet;
+    private final int frameWidth;
+    private final int frameHeight;
+    private final int frameCount;
+
+    private SpriteAtlas(Image sheet, int frameWidth, int frameHeight, int frameCount) {
+        this.sheet = sheet;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.frameCount = frameCount;
+    }
+
+    public static synchronized SpriteAtlas get(String key, int width, int height, int frames,
+                                               GraphicsConfiguration config, FramePainter painter) {
+        SpriteAtlas atlas = CACHE.get(key);
+        if (atlas == null) {
+            atlas = build(width, height, frames, config, painter);
+            CACHE.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    public static SpriteAtlas forHazard(Hazard.HazardType type, int width, int height, GraphicsConfiguration config) {
+        int frames = Hazard.frameCount(type, height);
+        if (frames > MAX_FRAMES) {
+            return null;
+        }
+        return get("hazard:" + type + ":" + width + "x" + height, width, height, frames, config,
+                (g, frame) -> Hazard.paint(g, type, 0, 0, width, height, Hazard.frameTick(type, frame)));
+    }
+
+    public static SpriteAtlas forGoal(int width, int height, GraphicsConfiguration config) {
+        return get("goal:" + width + "x" + height, width, height, Goal.PULSE_FRAMES, config,
+                (g, frame) -> Goal.paint(g, 0, 0, width, height, frame - Goal.PULSE_AMPLITUDE));
+    }
+
+    public static synchronized void clear() {
+        CACHE.clear();
+    }
+
+    public static GraphicsConfiguration configOf(Graphics g) {
+        return g instanceof Graphics2D ? ((Graphics2D) g).getDeviceConfiguration() : null;
+    }
+
+    private static SpriteAtlas build(int width, int height, int frames, GraphicsConfiguration config, FramePainter painter) {
+        int frameWidth = width + PAD * 2;
+        int frameHeight = height + PAD * 2;
+        int columns = Math.min(frames, COLUMNS);
+        int rows = (frames + columns - 1) / columns;
+        Image sheet;
+        if (config != null) {
+            sheet = config.createCompatibleImage(frameWidth * columns, frameHeight * rows, Transparency.TRANSLUCENT);
+        } else {
+            sheet = new BufferedImage(frameWidth * columns, frameHeight * rows, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D g2d = (Graphics2D) sheet.getGraphics();
+        try {
+            for (int frame = 0; frame < frames; frame++) {
+                int cellX = (frame % columns) * frameWidth;
+                int cellY = (frame / columns) * frameHeight;
+                Graphics2D cell = (Graphics2D) g2d.create(cellX, cellY, frameWidth, frameHeight);
+                try {
+                    cell.translate(PAD, PAD);
+                    painter.paint(cell, frame);
+                } finally {
+                    cell.dispose();
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return new SpriteAtlas(sheet, frameWidth, frameHeight, frames);
+    }
+
+    public void draw(Graphics g, int frame, int x, int y) {
+        int columns = Math.min(frameCount, COLUMNS);
+        int sx = (frame % columns) * frameWidth;
+        int sy = (frame / columns) * frameHeight;
+        int dx = x - PAD;
+        int dy = y - PAD;
+        g.drawImage(sheet, dx, dy, dx + frameWidth, dy + frameHeight, sx, sy, sx + frameWidth, sy + frameHeight, null);
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+}
@@ -0,0 +1,48 @@
+public final class Sweep {
+    public float time;
+    public int normalX;
+    public int normalY;
+
+    public boolean test(float minX, float minY, float maxX, float maxY, float dx, float dy,
+                        int bMinX, int bMinY, int bMaxX, int bMaxY) {
+        float entryX, exitX, entryY, exitY;
+        if (dx > 0) {
+            entryX = (bMinX - maxX) / dx;
+            exitX = (bMaxX - minX) / dx;
+        } else if (dx < 0) {
+            entryX = (bMaxX - minX) / dx;
+            exitX = (bMinX - maxX) / dx;
+        } else if (maxX > bMinX && minX < bMaxX) {
+            entryX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        } else {
+            return false;
+        }
+        if (dy > 0) {
+            entryY = (bMinY - maxY) / dy;
+            exitY = (bMaxY - minY) / dy;
+        } else if (dy < 0) {
+            entryY = (bMaxY - minY) / dy;
+            exitY = (bMinY - maxY) / dy;
+        } else if (maxY > bMinY && minY < bMaxY) {
+            entryY = Float.NEGATIVE_INFINITY;
+            exitY = Float.POSITIVE_INFINITY;
+        } else {
+            return false;
+        }
+        float entry = Math.max(entryX, entryY);
+        float exit = Math.min(exitX, exitY);
+        if (entry >= exit || entry < 0 || entry > 1) {
+            return false;
+        }
+        time = entry;
+        if (entryX > entryY) {
+            normalX = dx > 0 ? -1 : 1;
+            normalY = 0;
+        } else {
+            normalX = 0;
+            normalY = dy > 0 ? -1 : 1;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+public final class TickRate {
+    public static final String PROPERTY = "vaultvault.tickRate";
+    public static final int REFERENCE_HZ = 60;
+    private static final int[] SUPPORTED = { 30, 60, 120, 240 };
+    private static final TickRate[] RATES = new TickRate[SUPPORTED.length];
+
+    static {
+        for (int i = 0; i < SUPPORTED.length; i++) {
+            RATES[i] = new TickRate(SUPPORTED[i]);
+        }
+    }
+
+    private final int hz;
+    private final float seconds;
+    private final long nanos;
+
+    private TickRate(int hz) {
+        this.hz = hz;
+        this.seconds = 1f / hz;
+        this.nanos = 1000000000L / hz;
+    }
+
+    public static TickRate of(int hz) {
+        for (int i = 0; i < SUPPORTED.length; i++) {
+            if (SUPPORTED[i] == hz) {
+                return RATES[i];
+            }
+        }
+        throw new IllegalArgumentException("Unsupported tick rate " + hz + " Hz (supported: 30, 60, 120, 240)");
+    }
+
+    public static TickRate getDefault() {
+        return of(Integer.getInteger(PROPERTY, REFERENCE_HZ));
+    }
+
+    public int getHz() { return hz; }
+    public float getSeconds() { return seconds; }
+    public long getNanos() { return nanos; }
+
+    public int ticks(float seconds) {
+        return Math.max(1, Math.round(seconds * hz));
+    }
+
+    public double seconds(long ticks) {
+        return ticks / (double) hz;
+    }
+
+    public int animationTick(int ticks) {
+        return (int) ((long) ticks * REFERENCE_HZ / hz);
+    }
+
+    @Override
+    public String toString() {
+        return hz + " Hz";
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] slots = new Object[3];
+    private final AtomicInteger shared = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    public void publish() {
+        back = shared.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T front() {
+        if ((shared.get() & FRESH) != 0) {
+            front = shared.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) slots[front];
+    }
+}
@@ -4,13 +4,19 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
 
-public class VaultVault extends JPanel implements Runnable {
+public class VaultVault extends Canvas implements Runnable {
     public static final int WIDTH = 1024;
     public static final int HEIGHT = 768;
-    private static final int FPS = 60;
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static final long SPIN_THRESHOLD_NANOS = 1000000L;
+    private static final int DEFAULT_REFRESH_RATE = 60;
+    private static final int FADE_TILE_HEIGHT = 64;
 
     public enum GameState {
         MENU,
@@ -19,317 +25,485 @@ public class VaultVault extends JPanel implements Runnable {
     }
 
     private GameState currentState = GameState.MENU;
-    private boolean running;
+    private volatile boolean running;
     private Thread gameThread;
-    private List<Level> levels;
-    private int currentLevelIndex = 0;
-    private Player player;
+    private Thread renderThread;
+    private final Simulation simulation;
+    private final long nanosPerTick;
     private MainMenu mainMenu;
-    private boolean[] completedLevels;
-    private long levelStartTime;
-    private long currentTime;
-    private boolean timerRunning = false;
-    private boolean levelCompletionAnimation = false;
-    private int animationTicks = 0;
-    private final int MAX_ANIMATION_TICKS = 60;
-    private boolean levelChangeAnimation = false;
-    private int levelChangeTicks = 0;
-    private final int MAX_LEVEL_CHANGE_TICKS = 45;
-    private int nextLevelToStart = -1;
     private boolean debugMode = true;
+    private final TripleBuffer<WorldSnapshot> snapshots = new TripleBuffer<>(WorldSnapshot::new);
+    private volatile long presentNanos = 0;
+    private long timerSeconds = -1;
+    private String timerText;
+    private BufferedImage levelCompleteBanner;
+    private BufferedImage getReadyBanner;
+    private BufferedImage fadeTile;
+    private final InputQueue input = new InputQueue();
+    private final InputQueue.Handler inputHandler = this::applyInput;
+    private volatile long inputLatencyNanos = 0;
+    private volatile long maxInputLatencyNanos = 0;
+    private final Ghosts ghosts = Ghosts.openDefault();
+    private long bestTicks = -1;
+    private String bestText;
+    private int heldInput = 0;
+    private boolean jumpRequested = false;
+    private Replay replay;
+    private int replayTick;
+    private final FrameProfiler profiler = new FrameProfiler();
+    private volatile boolean profilerVisible = false;
+    private final FrameTimeHistogram frameTimes = new FrameTimeHistogram();
 
     public VaultVault() {
+        this(TickRate.getDefault());
+    }
+
+    public VaultVault(TickRate tickRate) {
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
         setBackground(Color.BLACK);
         setFocusable(true);
-        player = new Player(50, 300);
-        levels = new ArrayList<>();
-        createLevels();
-        completedLevels = new boolean[levels.size()];
+        setIgnoreRepaint(true);
+        simulation = new Simulation(LevelSource.openDefault(), WIDTH, HEIGHT, tickRate);
+        nanosPerTick = tickRate.getNanos();
+        simulation.setLevelWarmUp(level -> level.prepare(getGraphicsConfiguration()));
+        simulation.setProfiler(profiler);
         mainMenu = new MainMenu(this);
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                if (currentState == GameState.PLAYING) {
-                    handlePlayingKeyPressed(e);
-                } else if (currentState == GameState.MENU) {
-                    mainMenu.handleKeyPressed(e);
-                }
+                input.offer(InputQueue.KEY_PRESSED, e.getKeyCode(), 0);
             }
             @Override
             public void keyReleased(KeyEvent e) {
-                if (currentState == GameState.PLAYING) {
-                    handlePlayingKeyReleased(e);
-                }
+                input.offer(InputQueue.KEY_RELEASED, e.getKeyCode(), 0);
             }
         });
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                if (debugMode && currentState == GameState.PLAYING) {
-                    int x = e.getX();
-                    int y = e.getY();
-                    createPlatformAtPosition(x, y);
-                    System.out.println("Created platform at: x=" + x + ", y=" + y);
-                }
+                input.offer(InputQueue.MOUSE_CLICKED, e.getX(), e.getY());
             }
         });
     }
 
+    private void applyInput(int type, int a, int b, long nanos) {
+        long latency = System.nanoTime() - nanos;
+        inputLatencyNanos = latency;
+        maxInputLatencyNanos = Math.max(maxInputLatencyNanos, latency);
+        if (type == InputQueue.KEY_PRESSED) {
+            if (a == KeyEvent.VK_F3 && debugMode) {
+                profilerVisible = !profilerVisible;
+            } else if (currentState == GameState.PLAYING) {
+                handlePlayingKeyPressed(a);
+            } else if (currentState == GameState.MENU) {
+                mainMenu.handleKeyPressed(a);
+            }
+        } else if (type == InputQueue.KEY_RELEASED) {
+            if (currentState == GameState.PLAYING) {
+                handlePlayingKeyReleased(a);
+            }
+        } else if (type == InputQueue.MOUSE_CLICKED) {
+            if (debugMode && currentState == GameState.PLAYING) {
+                createPlatformAtPosition(a, b);
+                System.out.println("Created platform at: x=" + a + ", y=" + b);
+            }
+        }
+    }
+
     private void createPlatformAtPosition(int x, int y) {
-        if (currentLevelIndex >= 0 && currentLevelIndex < levels.size()) {
-            Level currentLevel = levels.get(currentLevelIndex);
+        Level currentLevel = simulation.getLevel();
+        if (currentLevel != null) {
             int platformWidth = 100;
             int platformHeight = 20;
-            Platform platform = new Platform(x - platformWidth/2, y - platformHeight/2, platformWidth, platformHeight);
-            currentLevel.addPlatform(platform);
+            currentLevel.addStaticPlatform(x - platformWidth/2, y - platformHeight/2, platformWidth, platformHeight, -1);
+            simulation.stopRecording();
         }
     }
 
-    private void handlePlayingKeyPressed(KeyEvent e) {
-        switch (e.getKeyCode()) {
+    private void handlePlayingKeyPressed(int keyCode) {
+        switch (keyCode) {
             case KeyEvent.VK_LEFT:
-                player.setMovingLeft(true);
+                heldInput |= Simulation.INPUT_LEFT;
                 break;
             case KeyEvent.VK_RIGHT:
-                player.setMovingRight(true);
+                heldInput |= Simulation.INPUT_RIGHT;
                 break;
             case KeyEvent.VK_SPACE:
             case KeyEvent.VK_UP:
-                player.jump();
+                jumpRequested = true;
                 break;
             case KeyEvent.VK_ESCAPE:
+                replay = null;
+                simulation.stopRecording();
                 setGameState(GameState.MENU);
                 break;
         }
     }
 
-    private void handlePlayingKeyReleased(KeyEvent e) {
-        switch (e.getKeyCode()) {
+    private void handlePlayingKeyReleased(int keyCode) {
+        switch (keyCode) {
             case KeyEvent.VK_LEFT:
-                player.setMovingLeft(false);
+                heldInput &= ~Simulation.INPUT_LEFT;
                 break;
             case KeyEvent.VK_RIGHT:
-                player.setMovingRight(false);
+                heldInput &= ~Simulation.INPUT_RIGHT;
                 break;
         }
     }
 
-    private void createLevels() {
-        Level tutorial = new Level();
-        tutorial.addPlayer(player);
-        tutorial.createLevel(0);
-        levels.add(tutorial);
+    public void setDebugMode(boolean debugMode) {
+        this.debugMode = debugMode;
+    }
 
-        Level level1 = new Level();
-        level1.addPlayer(player);
-        level1.createLevel(1);
-        levels.add(level1);
+    public boolean isDebugMode() {
+        return debugMode;
+    }
 
-        Level level2 = new Level();
-        level2.addPlayer(player);
-        level2.createLevel(2);
-        levels.add(level2);
+    public void setProfilerVisible(boolean profilerVisible) {
+        this.profilerVisible = profilerVisible;
+    }
 
-        Level level3 = new Level();
-        level3.addPlayer(player);
-        level3.createLevel(3);
-        levels.add(level3);
+    public boolean isProfilerVisible() {
+        return profilerVisible;
+    }
 
-        Level level4 = new Level();
-        level4.addPlayer(player);
-        level4.createLevel(4);
-        levels.add(level4);
+    Simulation getSimulation() {
+        return simulation;
+    }
 
-        Level level5 = new Level();
-        level5.addPlayer(player);
-        level5.createLevel(5);
-        levels.add(level5);
+    public int getLevelCount() {
+        return simulation.getLevelCount();
+    }
 
-        Level level6 = new Level();
-        level6.addPlayer(player);
-        level6.createLevel(6);
-        levels.add(level6);
+    public String getLevelName(int index) {
+        return simulation.getLevelName(index);
     }
 
-    public void setDebugMode(boolean debugMode) {
-        this.debugMode = debugMode;
+    public void startGame(int levelIndex) {
+        simulation.startLevel(levelIndex);
+        simulation.getLevel().prepare(getGraphicsConfiguration());
+        setGameState(GameState.PLAYING);
     }
 
-    public boolean isDebugMode() {
-        return debugMode;
+    public void playReplay(Replay replay) {
+        this.replay = replay;
+        replayTick = 0;
+        replay.seek(simulation, 0);
+        simulation.getLevel().prepare(getGraphicsConfiguration());
+        setGameState(GameState.PLAYING);
     }
 
-    public int getLevelCount() {
-        return levels.size();
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        while (running) {
+            int steps = 0;
+            while (System.nanoTime() - nextTick >= 0 && steps < MAX_CATCH_UP_TICKS) {
+                update();
+                nextTick += nanosPerTick;
+                steps++;
+            }
+            if (System.nanoTime() - nextTick >= 0) {
+                nextTick = System.nanoTime();
+            }
+            sleepUntil(nextTick);
+        }
     }
 
-    public void startGame(int levelIndex) {
-        currentLevelIndex = levelIndex;
-        if (currentLevelIndex >= levels.size()) {
-            currentLevelIndex = 0;
+    private void renderLoop() {
+        long frameNanos = 1000000000L / refreshRate();
+        long nextFrame = System.nanoTime() + frameNanos;
+
+        while (running) {
+            WorldSnapshot snapshot = snapshots.front();
+            float alpha = Math.min(1f, (System.nanoTime() - snapshot.getPublishedNanos()) / (float) nanosPerTick);
+            if (isDisplayable()) {
+                renderFrame(snapshot, alpha);
+            }
+
+            sleepUntil(nextFrame);
+            nextFrame += frameNanos;
+            long late = System.nanoTime() - nextFrame;
+            if (late > frameNanos) {
+                nextFrame += (late / frameNanos) * frameNanos;
+            }
         }
-        player.setX(50);
-        player.setY(300);
-        player.setVelocityX(0);
-        player.setVelocityY(0);
-        Level currentLevel = levels.get(currentLevelIndex);
-        currentLevel.createLevel(currentLevelIndex);
-        currentLevel.addPlayer(player);
-        levelCompletionAnimation = false;
-        animationTicks = 0;
-        levelStartTime = System.currentTimeMillis();
-        timerRunning = true;
-        setGameState(GameState.PLAYING);
     }
 
-    public boolean isLevelCompleted(int idx) {
-        if (idx >= 0 && idx < completedLevels.length) {
-            return completedLevels[idx];
+    private void renderFrame(WorldSnapshot snapshot, float alpha) {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            createStrategy();
+            strategy = getBufferStrategy();
         }
-        return false;
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    render(g, snapshot, alpha);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            long presentStart = System.nanoTime();
+            strategy.show();
+            Toolkit.getDefaultToolkit().sync();
+            presentNanos = System.nanoTime() - presentStart;
+        } while (strategy.contentsLost());
     }
 
-    public int getCompletedLevelCount() {
-        int count = 0;
-        for (boolean b : completedLevels) {
-            if (b) count++;
+    private void createStrategy() {
+        ImageCapabilities accelerated = new ImageCapabilities(true);
+        try {
+            createBufferStrategy(2, new BufferCapabilities(accelerated, accelerated, BufferCapabilities.FlipContents.UNDEFINED));
+            return;
+        } catch (AWTException e) {
+            System.out.println("Page flipping unavailable, using blit strategy");
+        }
+        try {
+            createBufferStrategy(2, new BufferCapabilities(accelerated, accelerated, null));
+        } catch (AWTException e) {
+            createBufferStrategy(2);
         }
-        return count;
     }
 
-    private boolean nextLevelPending = false;
+    public long getPresentNanos() {
+        return presentNanos;
+    }
 
-    @Override
-    public void run() {
-        running = true;
-        long lastTime = System.nanoTime();
-        double nsPerTick = 1000000000D / FPS;
-        double delta = 0;
+    public long getInputLatencyNanos() {
+        return inputLatencyNanos;
+    }
 
-        while (running) {
-            long now = System.nanoTime();
-            delta += (now - lastTime) / nsPerTick;
-            lastTime = now;
+    public long getMaxInputLatencyNanos() {
+        return maxInputLatencyNanos;
+    }
 
-            while (delta >= 1) {
-                update();
-                delta -= 1;
-            }
+    public FrameTimeHistogram getFrameTimes() {
+        return frameTimes;
+    }
 
-            repaint();
+    public long getDroppedInputs() {
+        return input.getDropped();
+    }
 
-            try {
-                Thread.sleep(2);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+    private int refreshRate() {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config != null) {
+            int rate = config.getDevice().getDisplayMode().getRefreshRate();
+            if (rate != DisplayMode.REFRESH_RATE_UNKNOWN) {
+                return rate;
             }
         }
+        return DEFAULT_REFRESH_RATE;
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
     }
 
-    private void update() {
+    void update() {
+        GameEvents.Tick event = new GameEvents.Tick();
+        event.begin();
+        long start = System.nanoTime();
+        input.drain(inputHandler);
         if (currentState == GameState.PLAYING) {
-            Level currentLevel = levels.get(currentLevelIndex);
-            currentLevel.update();
-            if (currentLevel.isCompleted() && !levelCompletionAnimation && !levelChangeAnimation) {
-                completedLevels[currentLevelIndex] = true;
-                levelCompletionAnimation = true;
-                animationTicks = 0;
+            if (replay != null && replayTick >= replay.getTickCount()) {
+                replay = null;
             }
-            if (levelCompletionAnimation) {
-                animationTicks++;
-                if (animationTicks >= MAX_ANIMATION_TICKS) {
-                    levelCompletionAnimation = false;
-                    if (currentLevelIndex + 1 < levels.size()) {
-                        levelChangeAnimation = true;
-                        levelChangeTicks = 0;
-                        nextLevelToStart = currentLevelIndex + 1;
-                    } else {
-                        setGameState(GameState.MENU);
-                    }
-                }
-            } else if (levelChangeAnimation) {
-                levelChangeTicks++;
-                if (levelChangeTicks >= MAX_LEVEL_CHANGE_TICKS) {
-                    levelChangeAnimation = false;
-                    if (nextLevelToStart >= 0 && nextLevelToStart < levels.size()) {
-                        startGame(nextLevelToStart);
-                        nextLevelToStart = -1;
-                    }
-                }
+            if (replay != null) {
+                simulation.advance(replay.getInput(replayTick++));
             } else {
-                if (timerRunning) {
-                    currentTime = System.currentTimeMillis();
-                }
+                simulation.advance(heldInput | (jumpRequested ? Simulation.INPUT_JUMP : 0));
+            }
+            jumpRequested = false;
+            if (simulation.getPhase() == Simulation.Phase.FINISHED) {
+                setGameState(GameState.MENU);
             }
         }
+        if (currentState == GameState.PLAYING) {
+            ghosts.update(simulation);
+        }
+        WorldSnapshot snapshot = snapshots.back();
+        snapshot.capture(currentState, simulation);
+        mainMenu.capture(snapshot);
+        if (currentState == GameState.PLAYING) {
+            ghosts.capture(snapshot);
+        }
+        snapshots.publish();
+        profiler.lap(FrameProfiler.UPDATE, start);
+        profiler.tick();
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = simulation.getTick();
+            event.state = currentState.name();
+            event.level = simulation.getLevelIndex();
+            event.commit();
+        }
     }
 
     private void setGameState(GameState newState) {
         currentState = newState;
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+    void render(Graphics g) {
+        render(g, snapshots.front(), 1f);
+    }
 
-        if (currentState == GameState.PLAYING) {
-            Level currentLevel = levels.get(currentLevelIndex);
-            currentLevel.render(g);
-            if (timerRunning && !levelCompletionAnimation && !levelChangeAnimation) {
-                long elapsedTime = (currentTime - levelStartTime) / 1000;
+    private void render(Graphics g, WorldSnapshot snapshot, float alpha) {
+        GameEvents.Frame event = new GameEvents.Frame();
+        event.begin();
+        long start = System.nanoTime();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        if (snapshot.getState() == GameState.PLAYING) {
+            Simulation.Phase phase = snapshot.getPhase();
+            snapshot.render(g, alpha, profiler);
+            if (phase == Simulation.Phase.PLAYING) {
+                long elapsedTime = snapshot.getLevelTicks() / snapshot.getTickRate().getHz();
+                if (elapsedTime != timerSeconds) {
+                    timerSeconds = elapsedTime;
+                    timerText = "Time: " + elapsedTime + "s";
+                }
                 g.setColor(Color.WHITE);
-                g.drawString("Time: " + elapsedTime + "s", 10, 20);
+                g.drawString(timerText, 10, 20);
+                if (snapshot.getBestTicks() >= 0) {
+                    if (snapshot.getBestTicks() != bestTicks) {
+                        bestTicks = snapshot.getBestTicks();
+                        bestText = String.format("Best: %.2fs", snapshot.getTickRate().seconds(bestTicks));
+                    }
+                    g.drawString(bestText, 10, 38);
+                }
             }
-            if (levelCompletionAnimation) {
+            if (phase == Simulation.Phase.LEVEL_COMPLETE) {
                 Graphics2D g2d = (Graphics2D) g;
-                float alpha = Math.min(1f, animationTicks / (float)MAX_ANIMATION_TICKS);
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-                g2d.setColor(new Color(0, 255, 255));
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 64));
-                String msg = "Level Complete!";
-                int msgWidth = g2d.getFontMetrics().stringWidth(msg);
-                g2d.drawString(msg, (WIDTH - msgWidth) / 2, HEIGHT / 2);
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
+                float fade = Math.min(1f, snapshot.getPhaseTicks() / (float) simulation.getLevelCompleteTicks());
+                if (levelCompleteBanner == null) {
+                    levelCompleteBanner = bakeBanner(g2d, "Level Complete!", Palette.font("Segoe UI", Font.BOLD, 64), Palette.color(0, 255, 255));
+                }
+                g2d.setComposite(Palette.alpha(fade));
+                drawBanner(g2d, levelCompleteBanner);
+                g2d.setComposite(AlphaComposite.SrcOver);
             }
-            if (levelChangeAnimation) {
+            if (phase == Simulation.Phase.LEVEL_CHANGE) {
                 Graphics2D g2d = (Graphics2D) g;
-                float alpha = 1f - (levelChangeTicks / (float)MAX_LEVEL_CHANGE_TICKS);
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-                g2d.setColor(new Color(120, 0, 255));
-                g2d.fillRect(0, 0, WIDTH, HEIGHT);
-                g2d.setColor(Color.WHITE);
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 48));
-                String msg = "Get Ready!";
-                int msgWidth = g2d.getFontMetrics().stringWidth(msg);
-                g2d.drawString(msg, (WIDTH - msgWidth) / 2, HEIGHT / 2);
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
+                float fade = 1f - (snapshot.getPhaseTicks() / (float) simulation.getLevelChangeTicks());
+                g2d.setComposite(Palette.alpha(fade));
+                if (fadeTile == null) {
+                    fadeTile = new BufferedImage(WIDTH, FADE_TILE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+                    Graphics tg = fadeTile.getGraphics();
+                    tg.setColor(Palette.color(120, 0, 255));
+                    tg.fillRect(0, 0, WIDTH, FADE_TILE_HEIGHT);
+                    tg.dispose();
+                }
+                for (int y = 0; y < HEIGHT; y += FADE_TILE_HEIGHT) {
+                    g2d.drawImage(fadeTile, 0, y, null);
+                }
+                if (getReadyBanner == null) {
+                    getReadyBanner = bakeBanner(g2d, "Get Ready!", Palette.font("Segoe UI", Font.BOLD, 48), Color.WHITE);
+                }
+                drawBanner(g2d, getReadyBanner);
+                g2d.setComposite(AlphaComposite.SrcOver);
             }
-        } else if (currentState == GameState.MENU) {
-            mainMenu.render(g);
+        } else if (snapshot.getState() == GameState.MENU) {
+            long menuStart = System.nanoTime();
+            mainMenu.render(g, snapshot);
+            profiler.lap(FrameProfiler.MENU, menuStart);
+        }
+        long end = profiler.lap(FrameProfiler.RENDER, start);
+        long interval = profiler.endFrame(end);
+        if (interval >= 0) {
+            frameTimes.record(interval);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = snapshot.getTick();
+            event.state = snapshot.getState().name();
+            event.alpha = alpha;
+            event.interval = interval;
+            event.commit();
+        }
+        if (snapshot.isDebugMode() && profilerVisible) {
+            profiler.render((Graphics2D) g, WIDTH - profiler.getPanelWidth() - 10, 10);
         }
     }
 
+    private BufferedImage bakeBanner(Graphics2D g2d, String msg, Font font, Color color) {
+        FontMetrics metrics = g2d.getFontMetrics(font);
+        BufferedImage banner = new BufferedImage(WIDTH, metrics.getAscent() * 2, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D bg = banner.createGraphics();
+        try {
+            bg.setFont(font);
+            bg.setColor(color);
+            bg.drawString(msg, (WIDTH - metrics.stringWidth(msg)) / 2, metrics.getAscent());
+        } finally {
+            bg.dispose();
+        }
+        return banner;
+    }
+
+    private void drawBanner(Graphics2D g2d, BufferedImage banner) {
+        g2d.drawImage(banner, 0, HEIGHT / 2 - banner.getHeight() / 2, null);
+    }
+
     public static void main(String[] args) {
         JFrame frame = new JFrame("VaultVault");
-        VaultVault game = new VaultVault();
+        Replay replay = null;
+        String replayFile = System.getProperty(Replay.REPLAY_PROPERTY);
+        if (replayFile != null) {
+            try {
+                replay = Replay.read(Path.of(replayFile));
+            } catch (IOException e) {
+                System.out.println("Could not read replay " + replayFile + ": " + e.getMessage());
+            }
+        }
+        VaultVault game = new VaultVault(replay != null ? replay.getTickRate() : TickRate.getDefault());
+        String record = System.getProperty(Replay.RECORD_PROPERTY);
+        if (record != null) {
+            game.getSimulation().setReplayDirectory(Path.of(record));
+        }
+        if (replay != null) {
+            game.playReplay(replay);
+        }
+        String histogram = System.getProperty(FrameTimeHistogram.FILE_PROPERTY);
+        if (histogram != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    game.getFrameTimes().write(Path.of(histogram));
+                } catch (IOException e) {
+                    System.out.println("Could not write frame-time histogram " + histogram + ": " + e.getMessage());
+                }
+            }, "VaultVault-histogram"));
+        }
         frame.add(game);
         frame.pack();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setResizable(false);
         frame.setVisible(true);
+        game.requestFocus();
         game.start();
     }
 
     public void start() {
         running = true;
-        gameThread = new Thread(this);
+        gameThread = new Thread(this, "VaultVault-simulation");
+        renderThread = new Thread(this::renderLoop, "VaultVault-render");
         gameThread.start();
+        renderThread.start();
     }
 
     public void stop() {
         running = false;
         try {
             gameThread.join();
+            renderThread.join();
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
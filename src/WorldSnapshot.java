@@ -0,0 +1,244 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+public class WorldSnapshot {
+    private VaultVault.GameState state = VaultVault.GameState.MENU;
+    private Simulation.Phase phase = Simulation.Phase.IDLE;
+    private int phaseTicks;
+    private long levelTicks;
+    private long tick;
+    private TickRate tickRate = TickRate.of(TickRate.REFERENCE_HZ);
+    private long publishedNanos;
+    private Image background;
+    private int width;
+    private int height;
+
+    private boolean levelSelect;
+    private int selectedMenuItem;
+    private int selectedLevel;
+    private String selectedLevelName;
+    private boolean debugMode;
+    private int levelCount;
+    private int completedLevelCount;
+    private boolean[] completedLevels = new boolean[0];
+
+    private int entityCount;
+    private int[] entityX = new int[64];
+    private int[] entityY = new int[64];
+    private int[] entityPrevX = new int[64];
+    private int[] entityPrevY = new int[64];
+    private int[] entityWidth = new int[64];
+    private int[] entityHeight = new int[64];
+    private int[] entityColor = new int[64];
+    private int[] entityTick = new int[64];
+    private byte[] entitySprite = new byte[64];
+    private boolean[] entityVisible = new boolean[64];
+    private SpriteAtlas[] entitySprites = new SpriteAtlas[64];
+    private Hazard.HazardType[] entityHazard = new Hazard.HazardType[64];
+
+    private int ghostCount;
+    private final int[] ghostX = new int[Ghosts.MAX_GHOSTS];
+    private final int[] ghostY = new int[Ghosts.MAX_GHOSTS];
+    private final int[] ghostPrevX = new int[Ghosts.MAX_GHOSTS];
+    private final int[] ghostPrevY = new int[Ghosts.MAX_GHOSTS];
+    private final int[] ghostKind = new int[Ghosts.MAX_GHOSTS];
+    private long bestTicks = -1;
+
+    private boolean hasPlayer;
+    private float playerX, playerY, playerPrevX, playerPrevY;
+    private int playerWidth, playerHeight;
+
+    public void capture(VaultVault.GameState state, Simulation simulation) {
+        this.state = state;
+        phase = simulation.getPhase();
+        phaseTicks = simulation.getPhaseTicks();
+        levelTicks = simulation.getLevelTicks();
+        tick = simulation.getTick();
+        tickRate = simulation.getTickRate();
+        ghostCount = 0;
+        bestTicks = -1;
+        simulation.captureProgress(this);
+        if (state == VaultVault.GameState.PLAYING) {
+            simulation.getLevel().capture(this);
+        }
+        publishedNanos = System.nanoTime();
+    }
+
+    void captureMenu(boolean levelSelect, int selectedMenuItem, int selectedLevel, String selectedLevelName, boolean debugMode) {
+        this.levelSelect = levelSelect;
+        this.selectedMenuItem = selectedMenuItem;
+        this.selectedLevel = selectedLevel;
+        this.selectedLevelName = selectedLevelName;
+        this.debugMode = debugMode;
+    }
+
+    void captureProgress(boolean[] completed, int completedCount) {
+        if (completed.length != completedLevels.length) {
+            completedLevels = new boolean[completed.length];
+        }
+        System.arraycopy(completed, 0, completedLevels, 0, completed.length);
+        levelCount = completed.length;
+        completedLevelCount = completedCount;
+    }
+
+    void captureBackground(Image background, int width, int height) {
+        this.background = background;
+        this.width = width;
+        this.height = height;
+    }
+
+    void captureEntities(Entities entities, TickRate rate) {
+        int count = entities.renderableCount;
+        if (count > entityX.length) {
+            int capacity = Math.max(count, entityX.length * 2);
+            entityX = Arrays.copyOf(entityX, capacity);
+            entityY = Arrays.copyOf(entityY, capacity);
+            entityPrevX = Arrays.copyOf(entityPrevX, capacity);
+            entityPrevY = Arrays.copyOf(entityPrevY, capacity);
+            entityWidth = Arrays.copyOf(entityWidth, capacity);
+            entityHeight = Arrays.copyOf(entityHeight, capacity);
+            entityColor = Arrays.copyOf(entityColor, capacity);
+            entityTick = Arrays.copyOf(entityTick, capacity);
+            entitySprite = Arrays.copyOf(entitySprite, capacity);
+            entityVisible = Arrays.copyOf(entityVisible, capacity);
+            entitySprites = Arrays.copyOf(entitySprites, capacity);
+            entityHazard = Arrays.copyOf(entityHazard, capacity);
+        }
+        for (int r = 0; r < count; r++) {
+            int id = entities.renderableEntity[r];
+            entityX[r] = entities.x[id];
+            entityY[r] = entities.y[id];
+            entityPrevX[r] = entities.prevX[id];
+            entityPrevY[r] = entities.prevY[id];
+            entityWidth[r] = entities.width[id];
+            entityHeight[r] = entities.height[id];
+            entityColor[r] = entities.renderableColor[r];
+            entityTick[r] = rate.animationTick(entities.renderableTick[r]);
+            entitySprite[r] = entities.renderableSprite[r];
+            entityVisible[r] = entities.visible[id];
+            entitySprites[r] = entities.renderableSprites[r];
+            int h = entities.hazardOf[id];
+            entityHazard[r] = h >= 0 ? entities.hazardType[h] : null;
+        }
+        for (int r = count; r < entityCount; r++) {
+            entitySprites[r] = null;
+            entityHazard[r] = null;
+        }
+        entityCount = count;
+    }
+
+    void captureGhosts(GhostTrajectory.Cursor[] cursors, int[] kinds, int count, long bestTicks) {
+        for (int i = 0; i < count; i++) {
+            ghostX[i] = cursors[i].getX();
+            ghostY[i] = cursors[i].getY();
+            ghostPrevX[i] = cursors[i].getPrevX();
+            ghostPrevY[i] = cursors[i].getPrevY();
+            ghostKind[i] = kinds[i];
+        }
+        ghostCount = count;
+        this.bestTicks = bestTicks;
+    }
+
+    void capturePlayer(Player player) {
+        hasPlayer = player != null;
+        if (hasPlayer) {
+            playerX = player.getX();
+            playerY = player.getY();
+            playerPrevX = player.getPrevX();
+            playerPrevY = player.getPrevY();
+            playerWidth = player.getWidth();
+            playerHeight = player.getHeight();
+        }
+    }
+
+    public void render(Graphics g, float alpha) {
+        render(g, alpha, null);
+    }
+
+    public void render(Graphics g, float alpha, FrameProfiler profiler) {
+        if (background != null) {
+            long start = profiler != null ? System.nanoTime() : 0;
+            g.drawImage(background, 0, 0, null);
+            if (profiler != null) {
+                profiler.lap(FrameProfiler.BACKGROUND, start);
+            }
+        }
+
+        for (int i = 0; i < entityCount; i++) {
+            if (entitySprite[i] != Entities.SPRITE_RECT || !entityVisible[i]) {
+                continue;
+            }
+            g.setColor(Palette.rgb(entityColor[i]));
+            g.fillRect(entityPrevX[i] + Math.round((entityX[i] - entityPrevX[i]) * alpha),
+                    entityPrevY[i] + Math.round((entityY[i] - entityPrevY[i]) * alpha),
+                    entityWidth[i], entityHeight[i]);
+        }
+
+        for (int i = 0; i < entityCount; i++) {
+            if (entitySprite[i] == Entities.SPRITE_HAZARD && entityVisible[i]) {
+                Hazard.draw(g, entitySprites[i], entityHazard[i], entityX[i], entityY[i],
+                        entityWidth[i], entityHeight[i], entityTick[i]);
+            }
+        }
+
+        for (int i = 0; i < entityCount; i++) {
+            if (entitySprite[i] == Entities.SPRITE_GOAL && entityVisible[i]) {
+                Goal.draw(g, entitySprites[i], entityX[i], entityY[i], entityWidth[i], entityHeight[i], entityTick[i]);
+            }
+        }
+
+        for (int i = 0; i < ghostCount; i++) {
+            g.drawImage(GhostSprites.get(ghostKind[i], playerWidth, playerHeight),
+                    ghostPrevX[i] + Math.round((ghostX[i] - ghostPrevX[i]) * alpha),
+                    ghostPrevY[i] + Math.round((ghostY[i] - ghostPrevY[i]) * alpha), null);
+        }
+
+        if (hasPlayer) {
+            g.setColor(Color.RED);
+            g.fillRect((int)(playerPrevX + (playerX - playerPrevX) * alpha), (int)(playerPrevY + (playerY - playerPrevY) * alpha),
+                    playerWidth, playerHeight);
+        }
+    }
+
+    private static final class GhostSprites {
+        static final Color[] FILLS = { Palette.color(0, 255, 255, 80), Palette.color(255, 215, 0, 80) };
+        static final Color[] EDGES = { Palette.color(0, 255, 255, 170), Palette.color(255, 215, 0, 170) };
+        static final BufferedImage[] IMAGES = new BufferedImage[FILLS.length];
+
+        static BufferedImage get(int kind, int width, int height) {
+            BufferedImage image = IMAGES[kind];
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                Graphics g = image.getGraphics();
+                g.setColor(FILLS[kind]);
+                g.fillRect(0, 0, width, height);
+                g.setColor(EDGES[kind]);
+                g.drawRect(0, 0, width - 1, height - 1);
+                g.dispose();
+                IMAGES[kind] = image;
+            }
+            return image;
+        }
+    }
+
+    public VaultVault.GameState getState() { return state; }
+    public Simulation.Phase getPhase() { return phase; }
+    public int getPhaseTicks() { return phaseTicks; }
+    public long getLevelTicks() { return levelTicks; }
+    public TickRate getTickRate() { return tickRate; }
+    public long getTick() { return tick; }
+    public long getPublishedNanos() { return publishedNanos; }
+    public long getBestTicks() { return bestTicks; }
+    public boolean isLevelSelect() { return levelSelect; }
+    public int getSelectedMenuItem() { return selectedMenuItem; }
+    public int getSelectedLevel() { return selectedLevel; }
+    public String getSelectedLevelName() { return selectedLevelName; }
+    public boolean isDebugMode() { return debugMode; }
+    public int getLevelCount() { return levelCount; }
+    public int getCompletedLevelCount() { return completedLevelCount; }
+
+    public boolean isLevelCompleted(int index) {
+        return index >= 0 && index < levelCount && completedLevels[index];
+    }
+}